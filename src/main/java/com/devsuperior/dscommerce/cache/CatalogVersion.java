@@ -0,0 +1,73 @@
+package com.devsuperior.dscommerce.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.events.CategoryChangedEvent;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.events.ProductsImportedEvent;
+
+/**
+ * Change counters behind the catalog ETags. Tags are prefixed with the boot epoch
+ * so that counters restarting at zero never reproduce a tag handed out before.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong products = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+    private final Map<Long, Long> productVersions = new ConcurrentHashMap<>();
+    private final CacheControl cacheControl;
+
+    public CatalogVersion(@Value("${catalog.http-cache.max-age}") Duration maxAge) {
+        cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    // runs after the caches and the search index have dropped the old entry,
+    // so a request that sees the new tag can no longer be served the old body
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        productVersions.merge(event.getProductId(), 1L, Long::sum);
+        products.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        products.incrementAndGet();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categories.incrementAndGet();
+    }
+
+    public String productsTag() {
+        return epoch + "-" + categories.get() + "-" + products.get();
+    }
+
+    public String productTag(Long id) {
+        // product details embed category names, so a category change retags them too
+        return epoch + "-" + categories.get() + "-" + id + "-" + productVersions.getOrDefault(id, 0L);
+    }
+
+    public String categoriesTag() {
+        return epoch + "-" + categories.get();
+    }
+
+    public CacheControl cacheControl() {
+        return cacheControl;
+    }
+}
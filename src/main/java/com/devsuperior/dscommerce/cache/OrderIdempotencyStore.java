@@ -0,0 +1,119 @@
+package com.devsuperior.dscommerce.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderItemDTO;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.devsuperior.dscommerce.services.exceptions.UnprocessableEntityException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers the order created for each {@code Idempotency-Key}, per user, so a retried
+ * POST gets the original response instead of a second order. A duplicate that arrives
+ * while the first request is still running waits for its outcome, up to a timeout.
+ * Failed requests are forgotten, so they can be retried with the same key.
+ */
+@Component
+public class OrderIdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<List<String>, Entry> entries;
+    private final Duration waitTimeout;
+
+    public OrderIdempotencyStore(@Value("${orders.idempotency.ttl}") Duration ttl,
+                                 @Value("${orders.idempotency.maximum-size}") long maximumSize,
+                                 @Value("${orders.idempotency.wait-timeout}") Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+        entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Runs {@code insert} unless this user already sent {@code key}, in which case the
+     * stored (or in-flight) result is returned.
+     *
+     * @throws UnprocessableEntityException when the key was used for a different order
+     * @throws ServiceUnavailableException when the first request is still running after the wait timeout
+     */
+    public OrderDTO execute(String username, String key, OrderDTO request, Supplier<OrderDTO> insert) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+        }
+        List<String> id = List.of(username, key);
+        Entry created = new Entry(fingerprint(request));
+        Entry existing = entries.asMap().putIfAbsent(id, created);
+
+        if (existing == null) {
+            try {
+                OrderDTO result = insert.get();
+                created.response.complete(result);
+                return result;
+            }
+            catch (Throwable e) {
+                // errors too: a future left incomplete would hold every retry of this key until it expires
+                entries.asMap().remove(id, created);
+                created.response.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        if (!existing.fingerprint.equals(created.fingerprint)) {
+            throw new UnprocessableEntityException("Idempotency-Key já utilizada para outro pedido");
+        }
+        try {
+            return existing.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) e.getCause();
+        }
+        catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Pedido com esta Idempotency-Key ainda em processamento");
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Pedido com esta Idempotency-Key ainda em processamento");
+        }
+    }
+
+    // lines merged by product and sorted, as insert sees them; any other field of the body is ignored by insert
+    private static String fingerprint(OrderDTO request) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItemDTO item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities.entrySet().stream()
+                .map(line -> line.getKey() + "x" + line.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    private static class Entry {
+
+        private final String fingerprint;
+        private final CompletableFuture<OrderDTO> response = new CompletableFuture<>();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
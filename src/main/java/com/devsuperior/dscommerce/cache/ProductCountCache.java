@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.cache;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Short-lived product counts per search term, for listings that only need "about N results".
+ */
+@Component
+public class ProductCountCache {
+
+    private final Cache<String, Long> counts;
+
+    public ProductCountCache(@Value("${catalog.count-cache.ttl}") Duration ttl,
+                             @Value("${catalog.count-cache.maximum-size}") long maximumSize) {
+        counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public long get(String name, ToLongFunction<String> counter) {
+        return counts.get(name.toUpperCase(Locale.ROOT), key -> counter.applyAsLong(name));
+    }
+}
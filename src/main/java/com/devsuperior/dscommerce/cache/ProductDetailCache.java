@@ -0,0 +1,64 @@
+package com.devsuperior.dscommerce.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.events.CategoryChangedEvent;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Read-through cache of product detail snapshots. Entries are shared between
+ * requests, so loaded DTOs are stored as unmodifiable snapshots; writes invalidate
+ * them after commit.
+ */
+@Component
+public class ProductDetailCache {
+
+    private final Cache<Long, ProductDTO> products;
+
+    public ProductDetailCache(@Value("${catalog.product-cache.ttl}") Duration ttl,
+                              @Value("${catalog.product-cache.maximum-size}") long maximumSize) {
+        products = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    public ProductDTO get(Long id, Function<Long, ProductDTO> loader) {
+        return products.get(id, key -> loader.apply(key).toSnapshot());
+    }
+
+    public void invalidate(Long id) {
+        products.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        products.invalidateAll();
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.getProductId());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidateAll();
+    }
+
+    public CacheStatsDTO stats() {
+        return new CacheStatsDTO(products.stats(), products.estimatedSize());
+    }
+}
@@ -1,15 +1,16 @@
 package com.devsuperior.dscommerce.controllers;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.cache.CatalogVersion;
 import com.devsuperior.dscommerce.services.CategoryService;
+import com.devsuperior.dscommerce.util.HttpCacheUtil;
 
 @RestController
 @RequestMapping(value = "/categories")
@@ -18,9 +19,12 @@ public class CategoryController {
     @Autowired
     private CategoryService service;
 
-    @GetMapping
-    public ResponseEntity<List<CategoryDTO>> findAll() {
-        List<CategoryDTO> list = service.findAll();
-        return ResponseEntity.ok(list);
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> findAll(WebRequest request) {
+        return HttpCacheUtil.conditional(request, catalogVersion.categoriesTag(), catalogVersion.cacheControl(),
+                () -> service.snapshot().getJson());
     }
 }
@@ -1,20 +1,31 @@
 package com.devsuperior.dscommerce.controllers;
 
 import java.net.URI;
+import java.time.Instant;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscommerce.cache.OrderIdempotencyStore;
 import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
+import com.devsuperior.dscommerce.dto.OrderTicketDTO;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.services.OrderIngestionService;
 import com.devsuperior.dscommerce.services.OrderService;
+import com.devsuperior.dscommerce.util.CustomUserUtil;
 
 import jakarta.validation.Valid;
 
@@ -25,6 +36,26 @@ public class OrderController {
     @Autowired
     private OrderService service;
 
+    @Autowired
+    private OrderIngestionService ingestionService;
+
+    @Autowired
+    private OrderIdempotencyStore idempotencyStore;
+
+    @Autowired
+    private CustomUserUtil customUserUtil;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping
+    public ResponseEntity<Page<OrderSummaryDTO>> search(
+            @RequestParam(name = "status", required = false) OrderStatus status,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestParam(name = "clientId", required = false) Long clientId,
+            Pageable pageable) {
+        return ResponseEntity.ok(service.search(status, from, to, clientId, pageable));
+    }
+
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
     @GetMapping(value = "/{id}")
     public ResponseEntity<OrderDTO> findById(@PathVariable Long id) {
@@ -34,10 +65,34 @@ public class OrderController {
     
     @PreAuthorize("hasRole('ROLE_CLIENT')")
     @PostMapping
-    public ResponseEntity<OrderDTO> insert(@Valid @RequestBody OrderDTO dto) {
-        dto = service.insert(dto);
+    public ResponseEntity<OrderDTO> insert(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody OrderDTO dto) {
+        if (idempotencyKey == null) {
+            dto = service.insert(dto);
+        }
+        else {
+            OrderDTO request = dto;
+            dto = idempotencyStore.execute(customUserUtil.getLoggedUsername(), idempotencyKey, request,
+                    () -> service.insert(request));
+        }
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
                 .buildAndExpand(dto.getId()).toUri();
         return ResponseEntity.created(uri).body(dto);
-    } 
+    }
+
+    @PreAuthorize("hasRole('ROLE_CLIENT')")
+    @PostMapping(params = "async=true")
+    public ResponseEntity<OrderTicketDTO> insertAsync(@Valid @RequestBody OrderDTO dto) {
+        OrderTicketDTO ticket = ingestionService.submit(dto);
+        URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/orders/tickets/{id}")
+                .buildAndExpand(ticket.getId()).toUri();
+        return ResponseEntity.accepted().location(uri).body(ticket);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_CLIENT')")
+    @GetMapping(value = "/tickets/{id}")
+    public ResponseEntity<OrderTicketDTO> findTicket(@PathVariable String id) {
+        return ResponseEntity.ok(ingestionService.findTicket(id));
+    }
 }
@@ -1,10 +1,14 @@
 package com.devsuperior.dscommerce.controllers;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,11 +20,26 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscommerce.cache.CatalogVersion;
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
+import com.devsuperior.dscommerce.dto.CategoryFacetDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
+import com.devsuperior.dscommerce.dto.ImportResultDTO;
+import com.devsuperior.dscommerce.dto.InventoryDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductSuggestionDTO;
+import com.devsuperior.dscommerce.dto.SliceDTO;
+import com.devsuperior.dscommerce.services.InventoryService;
+import com.devsuperior.dscommerce.services.ProductExportService;
+import com.devsuperior.dscommerce.services.ProductImportService;
 import com.devsuperior.dscommerce.services.ProductService;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.util.HttpCacheUtil;
 
 import jakarta.validation.Valid;
 
@@ -31,17 +50,113 @@ public class ProductController {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     @GetMapping
     public ResponseEntity<Page<ProductMinDTO>> findAll(
             @RequestParam(name = "name", defaultValue = "") String name,
-            Pageable pageable) {
-        Page<ProductMinDTO> dto = service.findAll(name, pageable);
-        return ResponseEntity.ok(dto);
+            @RequestParam(name = "categories", defaultValue = "") List<Long> categories,
+            @RequestParam(name = "match", defaultValue = "any") String match,
+            @RequestParam(name = "minPrice", required = false) Double minPrice,
+            @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+            Pageable pageable,
+            WebRequest request) {
+        return HttpCacheUtil.conditional(request, catalogVersion.productsTag(), catalogVersion.cacheControl(),
+                () -> service.findAll(name, categories, match, minPrice, maxPrice, pageable));
+    }
+
+    @GetMapping(value = "/facets")
+    public ResponseEntity<List<CategoryFacetDTO>> findFacets(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "categories", defaultValue = "") List<Long> categories,
+            @RequestParam(name = "match", defaultValue = "any") String match,
+            @RequestParam(name = "minPrice", required = false) Double minPrice,
+            @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+            WebRequest request) {
+        return HttpCacheUtil.conditional(request, catalogVersion.productsTag(), catalogVersion.cacheControl(),
+                () -> service.findFacets(name, categories, match, minPrice, maxPrice));
+    }
+
+    @GetMapping(params = {"fuzzy=true", "!after", "!count"})
+    public ResponseEntity<Page<ProductMinDTO>> findAllFuzzy(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "categories", defaultValue = "") List<Long> categories,
+            @RequestParam(name = "minPrice", required = false) Double minPrice,
+            @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+            Pageable pageable,
+            WebRequest request) {
+        requireNoFilters(categories, minPrice, maxPrice, "fuzzy");
+        return HttpCacheUtil.conditional(request, catalogVersion.productsTag(), catalogVersion.cacheControl(),
+                () -> service.findAllFuzzy(name, pageable));
+    }
+
+    @GetMapping(value = "/search")
+    public ResponseEntity<Page<ProductMinDTO>> search(
+            @RequestParam(name = "q", defaultValue = "") String q,
+            Pageable pageable,
+            WebRequest request) {
+        return HttpCacheUtil.conditional(request, catalogVersion.productsTag(), catalogVersion.cacheControl(),
+                () -> service.search(q, pageable));
+    }
+
+    @GetMapping(value = "/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(
+            @RequestParam(name = "q", defaultValue = "") String q,
+            @RequestParam(name = "limit", defaultValue = "10") int limit,
+            WebRequest request) {
+        return HttpCacheUtil.conditional(request, catalogVersion.productsTag(), catalogVersion.cacheControl(),
+                () -> service.suggest(q, limit));
+    }
+
+    @GetMapping(params = {"count=false", "!after"})
+    public ResponseEntity<SliceDTO<ProductMinDTO>> findAllSlice(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "categories", defaultValue = "") List<Long> categories,
+            @RequestParam(name = "match", defaultValue = "any") String match,
+            @RequestParam(name = "minPrice", required = false) Double minPrice,
+            @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(name = "approxTotal", defaultValue = "false") boolean approxTotal,
+            Pageable pageable,
+            WebRequest request) {
+        return HttpCacheUtil.conditional(request, catalogVersion.productsTag(), catalogVersion.cacheControl(),
+                () -> service.findAllSlice(name, categories, match, minPrice, maxPrice, pageable, approxTotal));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<ProductMinDTO>> findAllAfter(
+            @RequestParam(name = "name", defaultValue = "") String name,
+            @RequestParam(name = "after") String after,
+            @RequestParam(name = "sort", defaultValue = "id") String sort,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "categories", defaultValue = "") List<Long> categories,
+            @RequestParam(name = "minPrice", required = false) Double minPrice,
+            @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+            WebRequest request) {
+        requireNoFilters(categories, minPrice, maxPrice, "after");
+        return HttpCacheUtil.conditional(request, catalogVersion.productsTag(), catalogVersion.cacheControl(),
+                () -> service.findAllAfter(name, after, sort, size));
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
-        ProductDTO dto = service.findById(id);
+    public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+        return HttpCacheUtil.conditional(request, catalogVersion.productTag(id), catalogVersion.cacheControl(),
+                () -> service.findById(id));
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/cache-stats")
+    public ResponseEntity<CacheStatsDTO> detailCacheStats() {
+        CacheStatsDTO dto = service.detailCacheStats();
         return ResponseEntity.ok(dto);
     }
 
@@ -54,6 +169,34 @@ public class ProductController {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        if ("ndjson".equals(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(exportService::exportNdjson);
+        }
+        if ("csv".equals(format)) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .body(exportService::exportCsv);
+        }
+        throw new BadRequestException("Parâmetro format deve ser ndjson ou csv");
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ImportResultDTO> importNdjson(InputStream body) {
+        return ResponseEntity.ok(importService.importNdjson(body));
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultDTO> importCsv(InputStream body) {
+        return ResponseEntity.ok(importService.importCsv(body));
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PutMapping(value = "/{id}")
     public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
@@ -61,10 +204,29 @@ public class ProductController {
         return ResponseEntity.ok(dto);
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/{id}/inventory")
+    public ResponseEntity<InventoryDTO> findInventory(@PathVariable Long id) {
+        return ResponseEntity.ok(inventoryService.findByProduct(id));
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping(value = "/{id}/inventory")
+    public ResponseEntity<InventoryDTO> updateInventory(@PathVariable Long id, @Valid @RequestBody InventoryDTO dto) {
+        return ResponseEntity.ok(inventoryService.update(id, dto));
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    // cursor and fuzzy pages are not filtered; refuse rather than return unfiltered results
+    private static void requireNoFilters(List<Long> categories, Double minPrice, Double maxPrice, String mode) {
+        if (!categories.isEmpty() || minPrice != null || maxPrice != null) {
+            throw new BadRequestException("Filtros de categoria e preço não são suportados com o parâmetro " + mode);
+        }
+    }
 }
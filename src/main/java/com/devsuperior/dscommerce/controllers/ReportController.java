@@ -0,0 +1,64 @@
+package com.devsuperior.dscommerce.controllers;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.devsuperior.dscommerce.dto.SalesDayDTO;
+import com.devsuperior.dscommerce.services.SalesRollupService;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+
+@RestController
+@RequestMapping(value = "/reports")
+public class ReportController {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/sales/products")
+    public ResponseEntity<Page<SalesDayDTO>> productSales(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "productId", required = false) Long productId,
+            Pageable pageable) {
+        return ResponseEntity.ok(salesRollupService.findProductSales(productId, from, to, pageable));
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/sales/categories")
+    public ResponseEntity<Page<SalesDayDTO>> categorySales(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "categoryId", required = false) Long categoryId,
+            Pageable pageable) {
+        return ResponseEntity.ok(salesRollupService.findCategorySales(categoryId, from, to, pageable));
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/sales/rebuild")
+    public ResponseEntity<Void> rebuildSales(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from == null && to == null) {
+            salesRollupService.rebuild();
+        }
+        else if (from == null || to == null) {
+            throw new BadRequestException("Informe as datas inicial e final, ou nenhuma delas");
+        }
+        else {
+            salesRollupService.rebuild(from, to);
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
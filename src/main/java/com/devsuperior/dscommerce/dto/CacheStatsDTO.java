@@ -0,0 +1,58 @@
+package com.devsuperior.dscommerce.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public class CacheStatsDTO {
+
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long loadSuccessCount;
+    private long loadFailureCount;
+    private double averageLoadMillis;
+
+    public CacheStatsDTO(CacheStats stats, long size) {
+        this.size = size;
+        hitCount = stats.hitCount();
+        missCount = stats.missCount();
+        hitRate = stats.hitRate();
+        evictionCount = stats.evictionCount();
+        loadSuccessCount = stats.loadSuccessCount();
+        loadFailureCount = stats.loadFailureCount();
+        averageLoadMillis = stats.averageLoadPenalty() / 1_000_000.0;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public double getAverageLoadMillis() {
+        return averageLoadMillis;
+    }
+}
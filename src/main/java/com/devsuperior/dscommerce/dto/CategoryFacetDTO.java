@@ -0,0 +1,26 @@
+package com.devsuperior.dscommerce.dto;
+
+public class CategoryFacetDTO {
+
+	private Long id;
+	private String name;
+	private Long count;
+
+	public CategoryFacetDTO(Long id, String name, Long count) {
+		this.id = id;
+		this.name = name;
+		this.count = count;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,31 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.List;
+
+public class CategorySnapshot {
+
+    private final long version;
+    private final List<CategoryDTO> categories;
+    private final byte[] json;
+
+    public CategorySnapshot(long version, List<CategoryDTO> categories, byte[] json) {
+        this.version = version;
+        this.categories = List.copyOf(categories);
+        this.json = json;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Pre-encoded JSON array of {@link #getCategories()}; shared, never to be modified.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+}
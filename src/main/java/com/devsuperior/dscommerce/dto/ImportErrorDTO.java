@@ -0,0 +1,20 @@
+package com.devsuperior.dscommerce.dto;
+
+public class ImportErrorDTO {
+
+	private long line;
+	private String message;
+
+	public ImportErrorDTO(long line, String message) {
+		this.line = line;
+		this.message = message;
+	}
+
+	public long getLine() {
+		return line;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,38 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResultDTO {
+
+	private long received;
+	private long imported;
+	private long failed;
+	private List<ImportErrorDTO> errors = new ArrayList<>();
+
+	public ImportResultDTO(long received, long imported, long failed, List<ImportErrorDTO> errors) {
+		this.received = received;
+		this.imported = imported;
+		this.failed = failed;
+		this.errors.addAll(errors);
+	}
+
+	public long getReceived() {
+		return received;
+	}
+
+	public long getImported() {
+		return imported;
+	}
+
+	public long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * First rejected rows, capped at {@code catalog.import.max-errors}; {@link #getFailed()} has the full count.
+	 */
+	public List<ImportErrorDTO> getErrors() {
+		return errors;
+	}
+}
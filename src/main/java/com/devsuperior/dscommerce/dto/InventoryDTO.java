@@ -0,0 +1,26 @@
+package com.devsuperior.dscommerce.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class InventoryDTO {
+
+	private Long productId;
+	
+	@NotNull(message = "Campo requerido")
+	@PositiveOrZero(message = "O estoque não pode ser negativo")
+	private Long available;
+
+	public InventoryDTO(Long productId, Long available) {
+		this.productId = productId;
+		this.available = available;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public Long getAvailable() {
+		return available;
+	}
+}
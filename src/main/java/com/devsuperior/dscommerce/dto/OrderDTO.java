@@ -8,6 +8,7 @@ import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.OrderStatus;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 
 public class OrderDTO {
@@ -20,6 +21,9 @@ public class OrderDTO {
 	
 	private PaymentDTO payment;
 	
+	private Double total;
+	
+	@Valid
 	@NotEmpty(message = "Deve ter pelo menos um item")
 	private List<OrderItemDTO> items = new ArrayList<>();
 
@@ -37,6 +41,7 @@ public class OrderDTO {
 		this.status = entity.getStatus();
 		this.client = new ClientDTO(entity.getClient());
 		this.payment = (entity.getPayment() == null) ? null : new PaymentDTO(entity.getPayment());
+		this.total = entity.getTotal();
 		for (OrderItem item : entity.getItems()) {
 			OrderItemDTO itemDto = new OrderItemDTO(item);
 			items.add(itemDto);
@@ -68,10 +73,6 @@ public class OrderDTO {
 	}
 	
 	public Double getTotal() {
-		double sum = 0.0;
-		for (OrderItemDTO item : items) {
-			sum += item.getSubTotal();
-		}
-		return sum;
+		return total;
 	}
 }
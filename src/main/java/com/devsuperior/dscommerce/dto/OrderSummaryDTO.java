@@ -0,0 +1,52 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.time.Instant;
+
+import com.devsuperior.dscommerce.entities.OrderStatus;
+
+public class OrderSummaryDTO {
+
+	private Long id;
+	private Instant moment;
+	private OrderStatus status;
+	private Long clientId;
+	private Double total;
+	private Long itemCount;
+
+	public OrderSummaryDTO(Long id, Instant moment, OrderStatus status, Long clientId, Double total,
+			Long itemCount) {
+		this.id = id;
+		this.moment = moment;
+		this.status = status;
+		this.clientId = clientId;
+		this.total = total;
+		this.itemCount = itemCount;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Instant getMoment() {
+		return moment;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public Long getClientId() {
+		return clientId;
+	}
+
+	public Double getTotal() {
+		return total;
+	}
+
+	/**
+	 * Units across all lines, not the number of lines.
+	 */
+	public Long getItemCount() {
+		return itemCount;
+	}
+}
@@ -0,0 +1,42 @@
+package com.devsuperior.dscommerce.dto;
+
+public class OrderTicketDTO {
+
+	public enum Status {
+		PENDING, COMPLETED, FAILED
+	}
+
+	private String id;
+	private Status status;
+	private Long orderId;
+	private String message;
+
+	public OrderTicketDTO(String id, Status status, Long orderId, String message) {
+		this.id = id;
+		this.status = status;
+		this.orderId = orderId;
+		this.message = message;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Id of the written order once {@link Status#COMPLETED}.
+	 */
+	public Long getOrderId() {
+		return orderId;
+	}
+
+	/**
+	 * Reason the order was not written when {@link Status#FAILED}.
+	 */
+	public String getMessage() {
+		return message;
+	}
+}
@@ -48,6 +48,15 @@ public class ProductDTO {
         }
     }
 
+    /**
+     * Copy of this DTO whose category list cannot be modified, safe to share between requests.
+     */
+    public ProductDTO toSnapshot() {
+        ProductDTO snapshot = new ProductDTO(id, name, description, price, imgUrl);
+        snapshot.categories = List.copyOf(categories);
+        return snapshot;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,20 @@
+package com.devsuperior.dscommerce.dto;
+
+public class ProductSuggestionDTO {
+
+	private Long id;
+	private String name;
+
+	public ProductSuggestionDTO(Long id, String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,37 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.time.LocalDate;
+
+public class SalesDayDTO {
+
+	private Long id;
+	private LocalDate day;
+	private Long units;
+	private Double revenue;
+
+	public SalesDayDTO(Long id, LocalDate day, Long units, Double revenue) {
+		this.id = id;
+		this.day = day;
+		this.units = units;
+		this.revenue = revenue;
+	}
+
+	/**
+	 * Product or category id, depending on the report.
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	public LocalDate getDay() {
+		return day;
+	}
+
+	public Long getUnits() {
+		return units;
+	}
+
+	public Double getRevenue() {
+		return revenue;
+	}
+}
@@ -0,0 +1,46 @@
+package com.devsuperior.dscommerce.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+public class SliceDTO<T> {
+
+    private List<T> content;
+    private int number;
+    private int size;
+    private boolean hasNext;
+    private Long approximateTotal;
+
+    public SliceDTO(List<T> content, int number, int size, boolean hasNext, Long approximateTotal) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.approximateTotal = approximateTotal;
+    }
+
+    public SliceDTO(Slice<T> slice, Long approximateTotal) {
+        this(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), approximateTotal);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public Long getApproximateTotal() {
+        return approximateTotal;
+    }
+}
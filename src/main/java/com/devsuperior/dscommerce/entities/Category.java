@@ -1,5 +1,6 @@
 package com.devsuperior.dscommerce.entities;
 
+import com.devsuperior.dscommerce.events.CategoryChangeListener;
 import jakarta.persistence.*;
 
 import java.util.HashSet;
@@ -8,6 +9,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "tb_category")
+@EntityListeners(CategoryChangeListener.class)
 public class Category {
 
     @Id
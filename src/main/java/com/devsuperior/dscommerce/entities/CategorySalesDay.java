@@ -0,0 +1,54 @@
+package com.devsuperior.dscommerce.entities;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.util.Objects;
+
+/**
+ * Units sold and revenue of one category on one UTC day, maintained by the sales rollup.
+ */
+@Entity
+@Table(name = "tb_category_sales_day", indexes = {
+        @Index(name = "idx_category_sales_day_date", columnList = "sale_date")
+})
+public class CategorySalesDay {
+
+    @EmbeddedId
+    private CategorySalesDayPK id;
+
+    private Long units;
+    private Double revenue;
+
+    public CategorySalesDay() {
+    }
+
+    public CategorySalesDayPK getId() {
+        return id;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public Double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        CategorySalesDay that = (CategorySalesDay) o;
+
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.devsuperior.dscommerce.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class CategorySalesDayPK {
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    public CategorySalesDayPK() {
+    }
+
+    public CategorySalesDayPK(Long categoryId, LocalDate saleDate) {
+        this.categoryId = categoryId;
+        this.saleDate = saleDate;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        CategorySalesDayPK that = (CategorySalesDayPK) o;
+
+        if (!Objects.equals(categoryId, that.categoryId)) return false;
+        return Objects.equals(saleDate, that.saleDate);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = categoryId != null ? categoryId.hashCode() : 0;
+        result = 31 * result + (saleDate != null ? saleDate.hashCode() : 0);
+        return result;
+    }
+}
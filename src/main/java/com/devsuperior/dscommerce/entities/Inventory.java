@@ -0,0 +1,54 @@
+package com.devsuperior.dscommerce.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.util.Objects;
+
+/**
+ * Units of a product available for sale. Products without a row are not stock-controlled.
+ * The live figure is held in memory by the inventory service; this row trails it slightly.
+ */
+@Entity
+@Table(name = "tb_inventory")
+public class Inventory {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    private Long available;
+
+    public Inventory() {
+    }
+
+    public Inventory(Long productId, Long available) {
+        this.productId = productId;
+        this.available = available;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getAvailable() {
+        return available;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Inventory inventory = (Inventory) o;
+
+        return Objects.equals(productId, inventory.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        return productId != null ? productId.hashCode() : 0;
+    }
+}
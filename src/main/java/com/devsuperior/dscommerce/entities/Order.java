@@ -3,6 +3,7 @@ package com.devsuperior.dscommerce.entities;
 import jakarta.persistence.*;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -10,17 +11,29 @@ import java.util.Set;
 
 
 @Entity
-@Table(name = "tb_order")
+@Table(name = "tb_order", indexes = {
+        @Index(name = "idx_order_client_moment", columnList = "client_id, moment"),
+        @Index(name = "idx_order_status_moment", columnList = "status, moment"),
+        @Index(name = "idx_order_moment", columnList = "moment")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_order")
+    @SequenceGenerator(name = "seq_order", sequenceName = "seq_order", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant moment;
     private OrderStatus status;
 
+    // kept in step with items by addItem, so summaries and reports never need to read tb_order_item
+    @Column(nullable = false)
+    private Double total = 0.0;
+
+    @Column(nullable = false)
+    private Long itemCount = 0L;
+
     @ManyToOne
     @JoinColumn(name = "client_id")
     private User client;
@@ -28,7 +41,7 @@ public class Order {
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL)
     private Payment payment;
 
-    @OneToMany(mappedBy = "id.order")
+    @OneToMany(mappedBy = "id.order", cascade = CascadeType.PERSIST)
     private Set<OrderItem> items = new HashSet<>();
 
     public Order() {
@@ -82,8 +95,28 @@ public class Order {
         this.payment = payment;
     }
 
+    public Double getTotal() {
+        return total;
+    }
+
+    /**
+     * Units across all lines, not the number of lines.
+     */
+    public Long getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Read-only view; {@link #addItem(OrderItem)} is the only way to add a line, so the total stays in step.
+     */
     public Set<OrderItem> getItems() {
-        return items;
+        return Collections.unmodifiableSet(items);
+    }
+
+    public void addItem(OrderItem item) {
+        items.add(item);
+        total += item.getPrice() * item.getQuantity();
+        itemCount += item.getQuantity();
     }
 
     public List<Product> getProducts() {
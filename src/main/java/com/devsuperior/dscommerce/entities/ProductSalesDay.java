@@ -0,0 +1,54 @@
+package com.devsuperior.dscommerce.entities;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.util.Objects;
+
+/**
+ * Units sold and revenue of one product on one UTC day, maintained by the sales rollup.
+ */
+@Entity
+@Table(name = "tb_product_sales_day", indexes = {
+        @Index(name = "idx_product_sales_day_date", columnList = "sale_date")
+})
+public class ProductSalesDay {
+
+    @EmbeddedId
+    private ProductSalesDayPK id;
+
+    private Long units;
+    private Double revenue;
+
+    public ProductSalesDay() {
+    }
+
+    public ProductSalesDayPK getId() {
+        return id;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public Double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ProductSalesDay that = (ProductSalesDay) o;
+
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+}
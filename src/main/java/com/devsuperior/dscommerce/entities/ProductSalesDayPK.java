@@ -0,0 +1,51 @@
+package com.devsuperior.dscommerce.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class ProductSalesDayPK {
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    public ProductSalesDayPK() {
+    }
+
+    public ProductSalesDayPK(Long productId, LocalDate saleDate) {
+        this.productId = productId;
+        this.saleDate = saleDate;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ProductSalesDayPK that = (ProductSalesDayPK) o;
+
+        if (!Objects.equals(productId, that.productId)) return false;
+        return Objects.equals(saleDate, that.saleDate);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = productId != null ? productId.hashCode() : 0;
+        result = 31 * result + (saleDate != null ? saleDate.hashCode() : 0);
+        return result;
+    }
+}
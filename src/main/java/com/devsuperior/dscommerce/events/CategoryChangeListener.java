@@ -0,0 +1,28 @@
+package com.devsuperior.dscommerce.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscommerce.entities.Category;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that turns any write to {@link Category} into a {@link CategoryChangedEvent}.
+ */
+@Component
+public class CategoryChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Category category) {
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.devsuperior.dscommerce.events;
+
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.devsuperior.dscommerce.events;
+
+import java.util.List;
+
+import com.devsuperior.dscommerce.entities.Order;
+
+/**
+ * Published by every path that creates orders, once per transaction.
+ */
+public class OrdersPlacedEvent {
+
+    private final List<Order> orders;
+
+    public OrdersPlacedEvent(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    /**
+     * Orders as written; only their moment and items are meant to be read.
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+}
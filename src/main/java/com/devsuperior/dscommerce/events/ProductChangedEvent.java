@@ -0,0 +1,37 @@
+package com.devsuperior.dscommerce.events;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final ProductDTO product;
+
+    private ProductChangedEvent(Long productId, ProductDTO product) {
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent saved(ProductDTO product) {
+        return new ProductChangedEvent(product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * Snapshot of the product as written, or {@code null} when it was deleted.
+     */
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
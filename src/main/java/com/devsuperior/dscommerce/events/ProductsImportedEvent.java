@@ -0,0 +1,17 @@
+package com.devsuperior.dscommerce.events;
+
+/**
+ * Published once a bulk import has committed, instead of one {@link ProductChangedEvent} per row.
+ */
+public class ProductsImportedEvent {
+
+    private final long imported;
+
+    public ProductsImportedEvent(long imported) {
+        this.imported = imported;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+}
@@ -0,0 +1,10 @@
+package com.devsuperior.dscommerce.projections;
+
+public interface ProductTextProjection {
+
+	Long getId();
+	String getName();
+	String getDescription();
+	Double getPrice();
+	String getImgUrl();
+}
@@ -0,0 +1,31 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.time.LocalDate;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.devsuperior.dscommerce.dto.SalesDayDTO;
+import com.devsuperior.dscommerce.entities.CategorySalesDay;
+import com.devsuperior.dscommerce.entities.CategorySalesDayPK;
+
+public interface CategorySalesDayRepository extends JpaRepository<CategorySalesDay, CategorySalesDayPK> {
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.SalesDayDTO(obj.id.categoryId, obj.id.saleDate, obj.units, obj.revenue) " +
+            "FROM CategorySalesDay obj " +
+            "WHERE obj.id.saleDate >= :from AND obj.id.saleDate < :to " +
+            "ORDER BY obj.id.saleDate, obj.id.categoryId",
+            countQuery = "SELECT COUNT(obj) FROM CategorySalesDay obj " +
+            "WHERE obj.id.saleDate >= :from AND obj.id.saleDate < :to")
+    Page<SalesDayDTO> searchByDate(LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.SalesDayDTO(obj.id.categoryId, obj.id.saleDate, obj.units, obj.revenue) " +
+            "FROM CategorySalesDay obj " +
+            "WHERE obj.id.categoryId = :categoryId AND obj.id.saleDate >= :from AND obj.id.saleDate < :to " +
+            "ORDER BY obj.id.saleDate",
+            countQuery = "SELECT COUNT(obj) FROM CategorySalesDay obj " +
+            "WHERE obj.id.categoryId = :categoryId AND obj.id.saleDate >= :from AND obj.id.saleDate < :to")
+    Page<SalesDayDTO> searchByCategoryAndDate(Long categoryId, LocalDate from, LocalDate to, Pageable pageable);
+}
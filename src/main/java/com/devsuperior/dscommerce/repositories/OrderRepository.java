@@ -1,9 +1,36 @@
 package com.devsuperior.dscommerce.repositories;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
 import com.devsuperior.dscommerce.entities.Order;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    @Query("SELECT obj FROM Order obj JOIN FETCH obj.client LEFT JOIN FETCH obj.payment " +
+            "LEFT JOIN FETCH obj.items i LEFT JOIN FETCH i.id.product " +
+            "WHERE obj.id = :id")
+    Optional<Order> searchByIdWithItems(Long id);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.OrderSummaryDTO(obj.id, obj.moment, obj.status, obj.client.id, " +
+            "obj.total, obj.itemCount) " +
+            "FROM Order obj " +
+            "WHERE obj.client.id = :clientId " +
+            "ORDER BY obj.moment DESC, obj.id DESC")
+    List<OrderSummaryDTO> searchSummariesByClient(Long clientId, Pageable pageable);
 
+    @Query("SELECT new com.devsuperior.dscommerce.dto.OrderSummaryDTO(obj.id, obj.moment, obj.status, obj.client.id, " +
+            "obj.total, obj.itemCount) " +
+            "FROM Order obj " +
+            "WHERE obj.client.id = :clientId " +
+            "AND (obj.moment < :lastMoment OR (obj.moment = :lastMoment AND obj.id < :lastId)) " +
+            "ORDER BY obj.moment DESC, obj.id DESC")
+    List<OrderSummaryDTO> searchSummariesByClientBefore(Long clientId, Instant lastMoment, Long lastId,
+                                                        Pageable pageable);
 }
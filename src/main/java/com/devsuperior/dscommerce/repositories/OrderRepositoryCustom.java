@@ -0,0 +1,19 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Order summaries matching every non-null filter; {@code from} is inclusive, {@code to} exclusive.
+     * Sortable by id, moment and status.
+     */
+    Page<OrderSummaryDTO> searchSummaries(OrderStatus status, Instant from, Instant to, Long clientId,
+                                          Pageable pageable);
+}
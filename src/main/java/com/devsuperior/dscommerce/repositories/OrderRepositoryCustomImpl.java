@@ -0,0 +1,90 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Built with the Criteria API so that only the filters actually given reach the SQL; an
+ * {@code (:x IS NULL OR ...)} query would keep the planner from using the tb_order indexes.
+ */
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<OrderSummaryDTO> searchSummaries(OrderStatus status, Instant from, Instant to, Long clientId,
+                                                 Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<OrderSummaryDTO> query = cb.createQuery(OrderSummaryDTO.class);
+        Root<Order> order = query.from(Order.class);
+        query.select(cb.construct(OrderSummaryDTO.class,
+                        order.get("id"), order.get("moment"), order.get("status"), order.get("client").get("id"),
+                        order.get("total"), order.get("itemCount")))
+                .where(filters(cb, order, status, from, to, clientId))
+                .orderBy(orders(cb, order, pageable.getSort()));
+        List<OrderSummaryDTO> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<Order> countRoot = count.from(Order.class);
+        count.select(cb.count(countRoot)).where(filters(cb, countRoot, status, from, to, clientId));
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> entityManager.createQuery(count).getSingleResult());
+    }
+
+    private static Predicate[] filters(CriteriaBuilder cb, Root<Order> order, OrderStatus status, Instant from,
+                                       Instant to, Long clientId) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(order.get("status"), status));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.get("moment"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(order.get("moment"), to));
+        }
+        if (clientId != null) {
+            predicates.add(cb.equal(order.get("client").get("id"), clientId));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    // newest first unless asked otherwise; id breaks ties so pages are stable
+    private static List<jakarta.persistence.criteria.Order> orders(CriteriaBuilder cb, Root<Order> order, Sort sort) {
+        List<jakarta.persistence.criteria.Order> orders = new ArrayList<>();
+        if (sort.isUnsorted()) {
+            sort = Sort.by(Sort.Direction.DESC, "moment");
+        }
+        for (Sort.Order property : sort) {
+            orders.add(property.isAscending() ? cb.asc(order.get(property.getProperty()))
+                    : cb.desc(order.get(property.getProperty())));
+        }
+        if (sort.getOrderFor("id") == null) {
+            orders.add(cb.desc(order.get("id")));
+        }
+        return orders;
+    }
+}
@@ -1,14 +1,135 @@
 package com.devsuperior.dscommerce.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductSuggestionDTO;
+import com.devsuperior.dscommerce.dto.CategoryFacetDTO;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.projections.ProductCategoryProjection;
+import com.devsuperior.dscommerce.projections.ProductTextProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    @Query("SELECT obj FROM Product obj " +
+    @Query("SELECT obj FROM Product obj LEFT JOIN FETCH obj.categories " +
+            "WHERE obj.id = :id")
+    Optional<Product> searchByIdWithCategories(Long id);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))",
+            countQuery = "SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    Page<ProductMinDTO> searchMinByName(String name, Pageable pageable);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) AND (:maxPrice IS NULL OR obj.price <= :maxPrice)",
+            countQuery = "SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) AND (:maxPrice IS NULL OR obj.price <= :maxPrice)")
+    Page<ProductMinDTO> searchMinByNameAndPrice(String name, Double minPrice, Double maxPrice, Pageable pageable);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) AND (:maxPrice IS NULL OR obj.price <= :maxPrice) " +
+            "AND obj.id IN (SELECT p.id FROM Product p JOIN p.categories c WHERE c.id IN :categoryIds " +
+            "GROUP BY p.id HAVING COUNT(c) >= :required)",
+            countQuery = "SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) AND (:maxPrice IS NULL OR obj.price <= :maxPrice) " +
+            "AND obj.id IN (SELECT p.id FROM Product p JOIN p.categories c WHERE c.id IN :categoryIds " +
+            "GROUP BY p.id HAVING COUNT(c) >= :required)")
+    Page<ProductMinDTO> searchMinByNameAndCategories(String name, Collection<Long> categoryIds, long required,
+                                                     Double minPrice, Double maxPrice, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.CategoryFacetDTO(c.id, c.name, COUNT(obj)) " +
+            "FROM Product obj JOIN obj.categories c " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) AND (:maxPrice IS NULL OR obj.price <= :maxPrice) " +
+            "GROUP BY c.id, c.name")
+    List<CategoryFacetDTO> countFacetsByName(String name, Double minPrice, Double maxPrice);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.CategoryFacetDTO(c.id, c.name, COUNT(obj)) " +
+            "FROM Product obj JOIN obj.categories c " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) AND (:maxPrice IS NULL OR obj.price <= :maxPrice) " +
+            "AND obj.id IN (SELECT p.id FROM Product p JOIN p.categories pc WHERE pc.id IN :categoryIds " +
+            "GROUP BY p.id HAVING COUNT(pc) >= :required) " +
+            "GROUP BY c.id, c.name")
+    List<CategoryFacetDTO> countFacetsByNameAndCategories(String name, Collection<Long> categoryIds, long required,
+                                                          Double minPrice, Double maxPrice);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
             "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
-    Page<Product> searchByName(String name, Pageable pageable);
+    Slice<ProductMinDTO> searchSliceByName(String name, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) AND (:maxPrice IS NULL OR obj.price <= :maxPrice)")
+    Slice<ProductMinDTO> searchSliceByNameAndPrice(String name, Double minPrice, Double maxPrice, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (:minPrice IS NULL OR obj.price >= :minPrice) AND (:maxPrice IS NULL OR obj.price <= :maxPrice) " +
+            "AND obj.id IN (SELECT p.id FROM Product p JOIN p.categories c WHERE c.id IN :categoryIds " +
+            "GROUP BY p.id HAVING COUNT(c) >= :required)")
+    Slice<ProductMinDTO> searchSliceByNameAndCategories(String name, Collection<Long> categoryIds, long required,
+                                                        Double minPrice, Double maxPrice, Pageable pageable);
+
+    @Query("SELECT COUNT(obj) FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%'))")
+    long countByName(String name);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND obj.id > :lastId " +
+            "ORDER BY obj.id")
+    List<ProductMinDTO> searchByNameAfterId(String name, Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (obj.name > :lastName OR (obj.name = :lastName AND obj.id > :lastId)) " +
+            "ORDER BY obj.name, obj.id")
+    List<ProductMinDTO> searchByNameAfterName(String name, String lastName, Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT('%', :name, '%')) " +
+            "AND (obj.price > :lastPrice OR (obj.price = :lastPrice AND obj.id > :lastId)) " +
+            "ORDER BY obj.price, obj.id")
+    List<ProductMinDTO> searchByNameAfterPrice(String name, Double lastPrice, Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductSuggestionDTO(obj.id, obj.name) " +
+            "FROM Product obj " +
+            "WHERE UPPER(obj.name) LIKE UPPER(CONCAT(:prefix, '%')) " +
+            "OR UPPER(obj.name) LIKE UPPER(CONCAT('% ', :prefix, '%')) " +
+            "ORDER BY LENGTH(obj.name), obj.id")
+    List<ProductSuggestionDTO> searchSuggestions(String prefix, Pageable pageable);
+
+    @Query("SELECT new com.devsuperior.dscommerce.dto.ProductMinDTO(obj.id, obj.name, obj.price, obj.imgUrl) " +
+            "FROM Product obj ORDER BY obj.id")
+    List<ProductMinDTO> findAllMin();
+
+    @Query("SELECT obj.id AS id, obj.name AS name, obj.description AS description, obj.price AS price, " +
+            "obj.imgUrl AS imgUrl FROM Product obj ORDER BY obj.id")
+    List<ProductTextProjection> searchTextFields();
+
+    @Query(nativeQuery = true, value = "SELECT product_id AS productId, category_id AS categoryId " +
+            "FROM tb_product_category")
+    List<ProductCategoryProjection> searchProductCategories();
 }
@@ -0,0 +1,31 @@
+package com.devsuperior.dscommerce.repositories;
+
+import java.time.LocalDate;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.devsuperior.dscommerce.dto.SalesDayDTO;
+import com.devsuperior.dscommerce.entities.ProductSalesDay;
+import com.devsuperior.dscommerce.entities.ProductSalesDayPK;
+
+public interface ProductSalesDayRepository extends JpaRepository<ProductSalesDay, ProductSalesDayPK> {
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.SalesDayDTO(obj.id.productId, obj.id.saleDate, obj.units, obj.revenue) " +
+            "FROM ProductSalesDay obj " +
+            "WHERE obj.id.saleDate >= :from AND obj.id.saleDate < :to " +
+            "ORDER BY obj.id.saleDate, obj.id.productId",
+            countQuery = "SELECT COUNT(obj) FROM ProductSalesDay obj " +
+            "WHERE obj.id.saleDate >= :from AND obj.id.saleDate < :to")
+    Page<SalesDayDTO> searchByDate(LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query(value = "SELECT new com.devsuperior.dscommerce.dto.SalesDayDTO(obj.id.productId, obj.id.saleDate, obj.units, obj.revenue) " +
+            "FROM ProductSalesDay obj " +
+            "WHERE obj.id.productId = :productId AND obj.id.saleDate >= :from AND obj.id.saleDate < :to " +
+            "ORDER BY obj.id.saleDate",
+            countQuery = "SELECT COUNT(obj) FROM ProductSalesDay obj " +
+            "WHERE obj.id.productId = :productId AND obj.id.saleDate >= :from AND obj.id.saleDate < :to")
+    Page<SalesDayDTO> searchByProductAndDate(Long productId, LocalDate from, LocalDate to, Pageable pageable);
+}
@@ -0,0 +1,241 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.projections.ProductCategoryProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * One bitset of product ids per category, mirroring tb_product_category.
+ * Category filters become word-wise AND/OR and facet counts a popcount.
+ * <p>
+ * Bits are int product ids; while any product id does not fit in one, the index
+ * reports itself not ready and category queries are left to the database.
+ */
+@Component
+public class ProductCategoryIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCategoryIndex.class);
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, long[]> bitsets = new HashMap<>();
+    private Set<Long> unkeyed = new HashSet<>();
+    private final RebuildLog rebuildLog = new RebuildLog();
+    private volatile boolean ready;
+
+    /**
+     * Reloads the product categories. Changes that arrive meanwhile are replayed on the new bitsets.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.start();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, long[]> newBitsets = new HashMap<>();
+        Set<Long> skipped = new HashSet<>();
+        try {
+            for (ProductCategoryProjection row : repository.searchProductCategories()) {
+                if (!hasKey(row.getProductId())) {
+                    skipped.add(row.getProductId());
+                    continue;
+                }
+                int id = toKey(row.getProductId());
+                newBitsets.compute(row.getCategoryId(), (categoryId, bits) -> set((bits == null) ? EMPTY : bits, id));
+            }
+        }
+        catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuildLog.finish();
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            boolean wasKeyed = unkeyed.isEmpty();
+            bitsets = newBitsets;
+            unkeyed = skipped;
+            for (ProductChangedEvent change : rebuildLog.finish()) {
+                apply(change);
+            }
+            updateReady(wasKeyed);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            boolean wasKeyed = unkeyed.isEmpty();
+            rebuildLog.record(event);
+            apply(event);
+            // not ready with every id keyed means not loaded yet, which only a rebuild changes
+            if (ready || !wasKeyed) {
+                updateReady(wasKeyed);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Products in all ({@code matchAll}) or any of the given categories.
+     */
+    public ProductFilter filter(Collection<Long> categoryIds, boolean matchAll) {
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (Long categoryId : categoryIds) {
+                long[] bits = bitsets.getOrDefault(categoryId, EMPTY);
+                if (result == null) {
+                    result = bits.clone();
+                }
+                else {
+                    result = matchAll ? and(result, bits) : or(result, bits);
+                }
+            }
+            return new ProductFilter(result == null ? EMPTY : result);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of the given products in each category that holds at least one product.
+     */
+    public Map<Long, Long> countByCategory(int[] productIds) {
+        long[] selected = EMPTY;
+        if (productIds.length > 0) {
+            selected = new long[(productIds[productIds.length - 1] >>> 6) + 1];
+            for (int id : productIds) {
+                selected[id >>> 6] |= 1L << id;
+            }
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, long[]> entry : bitsets.entrySet()) {
+                long[] bits = entry.getValue();
+                long count = 0;
+                for (int i = 0, n = Math.min(bits.length, selected.length); i < n; i++) {
+                    count += Long.bitCount(bits[i] & selected[i]);
+                }
+                counts.put(entry.getKey(), count);
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    private void apply(ProductChangedEvent change) {
+        if (!hasKey(change.getProductId())) {
+            if (change.isDeleted()) {
+                unkeyed.remove(change.getProductId());
+            }
+            else {
+                unkeyed.add(change.getProductId());
+            }
+            return;
+        }
+        int id = toKey(change.getProductId());
+        bitsets.replaceAll((categoryId, bits) -> clear(bits, id));
+        if (!change.isDeleted()) {
+            for (CategoryDTO category : change.getProduct().getCategories()) {
+                bitsets.put(category.getId(), set(bitsets.getOrDefault(category.getId(), EMPTY), id));
+            }
+        }
+    }
+
+    private void updateReady(boolean wasKeyed) {
+        boolean keyed = unkeyed.isEmpty();
+        if (!keyed) {
+            logger.warn("Category index disabled, product ids {} do not fit in an int", unkeyed);
+        }
+        else if (!wasKeyed) {
+            logger.info("Category index enabled again, every product id fits in an int");
+        }
+        ready = keyed;
+    }
+
+    private static boolean hasKey(Long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private static int toKey(Long id) {
+        return (int) (long) id;
+    }
+
+    private static long[] set(long[] bits, int id) {
+        int word = id >>> 6;
+        long[] result = (word < bits.length) ? bits : Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+        result[word] |= 1L << id;
+        return result;
+    }
+
+    private static long[] clear(long[] bits, int id) {
+        int word = id >>> 6;
+        if (word < bits.length) {
+            bits[word] &= ~(1L << id);
+        }
+        return bits;
+    }
+
+    private static long[] and(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, Math.min(a.length, b.length));
+        for (int i = 0; i < result.length; i++) {
+            result[i] &= b[i];
+        }
+        return result;
+    }
+
+    private static long[] or(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for (int i = 0; i < b.length; i++) {
+            result[i] |= b[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,32 @@
+package com.devsuperior.dscommerce.search;
+
+/**
+ * Immutable set of product ids, stored as a bitset indexed by id.
+ */
+public final class ProductFilter {
+
+    private final long[] words;
+
+    ProductFilter(long[] words) {
+        this.words = words;
+    }
+
+    public boolean test(int id) {
+        int word = id >>> 6;
+        return word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * Products in both filters; a null {@code other} means no restriction.
+     */
+    public ProductFilter and(ProductFilter other) {
+        if (other == null) {
+            return this;
+        }
+        long[] result = new long[Math.min(words.length, other.words.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new ProductFilter(result);
+    }
+}
@@ -0,0 +1,319 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * Typo-tolerant name search. Each product keeps its folded name, tokens and padded
+ * word trigrams; a query is ranked by trigram similarity (shared / total distinct
+ * trigrams, as pg_trgm does) and accepted when that similarity is high enough or
+ * every query word is within a small edit distance of a word in the name.
+ */
+@Component
+public class ProductFuzzyIndex {
+
+    private static final double MIN_SIMILARITY = 0.3;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // dense slots keep the per-query counters small; a removed product's slot is reused by the next one added
+    private List<Entry> slots = new ArrayList<>();
+    private Deque<Integer> freeSlots = new ArrayDeque<>();
+    private Map<Long, Integer> slotById = new HashMap<>();
+    private Map<Long, int[]> postings = new HashMap<>();
+    private final RebuildLog rebuildLog = new RebuildLog();
+    private volatile boolean ready;
+
+    /**
+     * Reloads the catalog names. Changes that arrive meanwhile are replayed on the new slots.
+     */
+    public void rebuild() {
+        startRebuild();
+        List<ProductMinDTO> products;
+        try {
+            products = repository.findAllMin();
+        }
+        catch (RuntimeException e) {
+            cancelRebuild();
+            throw e;
+        }
+        rebuild(products);
+    }
+
+    /**
+     * Starts recording changes for a rebuild from products the caller loads next; ends with
+     * {@link #rebuild(List)}, or {@link #cancelRebuild()} if the load fails.
+     */
+    void startRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.start();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.finish();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void rebuild(List<ProductMinDTO> products) {
+        List<Entry> newSlots = new ArrayList<>();
+        Deque<Integer> newFreeSlots = new ArrayDeque<>();
+        Map<Long, Integer> newSlotById = new HashMap<>();
+        Map<Long, int[]> newPostings = new HashMap<>();
+        for (ProductMinDTO product : products) {
+            add(new Entry(product), newSlots, newFreeSlots, newSlotById, newPostings);
+        }
+
+        lock.writeLock().lock();
+        try {
+            slots = newSlots;
+            freeSlots = newFreeSlots;
+            slotById = newSlotById;
+            postings = newPostings;
+            for (ProductChangedEvent change : rebuildLog.finish()) {
+                apply(change);
+            }
+            ready = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.record(event);
+            apply(event);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Products matching {@code name} approximately, best match first; the pageable's sort is not used.
+     */
+    public Page<ProductMinDTO> search(String name, Pageable pageable) {
+        String folded = TextNormalizer.fold(name);
+        if (folded.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        String[] queryTokens = folded.split(" ");
+        long[] queryGrams = trigrams(queryTokens);
+
+        RankedHits hits = new RankedHits();
+        lock.readLock().lock();
+        try {
+            int[] shared = new int[slots.size()];
+            List<Integer> candidates = new ArrayList<>();
+            for (long gram : queryGrams) {
+                for (int slot : postings.getOrDefault(gram, new int[0])) {
+                    if (shared[slot]++ == 0) {
+                        candidates.add(slot);
+                    }
+                }
+            }
+            for (int slot : candidates) {
+                Entry entry = slots.get(slot);
+                if (entry == null) {
+                    continue;
+                }
+                double similarity = (double) shared[slot] / (queryGrams.length + entry.grams.length - shared[slot]);
+                boolean closeWords = withinEditDistance(queryTokens, entry.tokens);
+                if (similarity >= MIN_SIMILARITY || closeWords) {
+                    double score = similarity + (closeWords ? 1.0 : 0.0) + (entry.folded.contains(folded) ? 1.0 : 0.0);
+                    hits.add(entry.product, score);
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+
+        return hits.toPage(pageable);
+    }
+
+    /**
+     * Number of slots, live or free; bounded by the largest the catalog has been since the last rebuild.
+     */
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangedEvent change) {
+        Integer slot = slotById.remove(change.getProductId());
+        if (slot != null) {
+            for (long gram : slots.get(slot).grams) {
+                int[] list = delete(postings.get(gram), slot);
+                if (list.length == 0) {
+                    postings.remove(gram);
+                }
+                else {
+                    postings.put(gram, list);
+                }
+            }
+            slots.set(slot, null);
+            freeSlots.push(slot);
+        }
+        if (!change.isDeleted()) {
+            ProductDTO dto = change.getProduct();
+            add(new Entry(new ProductMinDTO(dto.getId(), dto.getName(), dto.getPrice(), dto.getImgUrl())),
+                    slots, freeSlots, slotById, postings);
+        }
+    }
+
+    private static void add(Entry entry, List<Entry> slots, Deque<Integer> freeSlots,
+                            Map<Long, Integer> slotById, Map<Long, int[]> postings) {
+        Integer free = freeSlots.poll();
+        int slot;
+        if (free == null) {
+            slot = slots.size();
+            slots.add(entry);
+        }
+        else {
+            slot = free;
+            slots.set(slot, entry);
+        }
+        slotById.put(entry.product.getId(), slot);
+        for (long gram : entry.grams) {
+            int[] list = postings.getOrDefault(gram, new int[0]);
+            int[] extended = Arrays.copyOf(list, list.length + 1);
+            extended[list.length] = slot;
+            postings.put(gram, extended);
+        }
+    }
+
+    /**
+     * Allowed typos grow with the word: none up to 2 letters, one up to 5, two beyond.
+     */
+    static int maxEdits(int length) {
+        return (length <= 2) ? 0 : (length <= 5) ? 1 : 2;
+    }
+
+    private static boolean withinEditDistance(String[] queryTokens, String[] nameTokens) {
+        for (String query : queryTokens) {
+            boolean found = false;
+            for (int i = 0; i < nameTokens.length && !found; i++) {
+                found = editDistance(query, nameTokens[i], maxEdits(query.length())) >= 0;
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Levenshtein distance between {@code a} and {@code b}, or -1 as soon as it is known to exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return -1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = (a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return -1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max ? previous[b.length()] : -1;
+    }
+
+    // words are padded like pg_trgm ("  pc " -> "  p", " pc", "pc ") so short words still produce trigrams
+    private static long[] trigrams(String[] tokens) {
+        Set<Long> grams = new HashSet<>();
+        for (String token : tokens) {
+            String padded = "  " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+            }
+        }
+        return grams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static int[] delete(int[] list, int slot) {
+        int n = 0;
+        int[] result = new int[list.length];
+        for (int value : list) {
+            if (value != slot) {
+                result[n++] = value;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static final class Entry {
+
+        private final ProductMinDTO product;
+        private final String folded;
+        private final String[] tokens;
+        private final long[] grams;
+
+        private Entry(ProductMinDTO product) {
+            this.product = product;
+            this.folded = TextNormalizer.fold(product.getName());
+            this.tokens = folded.isEmpty() ? new String[0] : folded.split(" ");
+            this.grams = trigrams(tokens);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.events.ProductsImportedEvent;
+import com.devsuperior.dscommerce.projections.ProductTextProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * Rebuilds the product indexes at startup and after a bulk import, reading the catalog once
+ * for all of them instead of once per index.
+ */
+@Component
+public class ProductIndexLoader implements SmartInitializingSingleton {
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductCategoryIndex categoryIndex;
+
+    @Autowired
+    private ProductPriceIndex priceIndex;
+
+    @Autowired
+    private ProductSuggestIndex suggestIndex;
+
+    @Autowired
+    private ProductFuzzyIndex fuzzyIndex;
+
+    @Autowired
+    private ProductTextIndex textIndex;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        rebuild();
+    }
+
+    public void rebuild() {
+        // changes from here on are replayed by each index, whether or not the load sees them
+        searchIndex.startRebuild();
+        priceIndex.startRebuild();
+        suggestIndex.startRebuild();
+        fuzzyIndex.startRebuild();
+        textIndex.startRebuild();
+        List<ProductTextProjection> rows;
+        try {
+            rows = repository.searchTextFields();
+        }
+        catch (RuntimeException e) {
+            searchIndex.cancelRebuild();
+            priceIndex.cancelRebuild();
+            suggestIndex.cancelRebuild();
+            fuzzyIndex.cancelRebuild();
+            textIndex.cancelRebuild();
+            throw e;
+        }
+        // the text rows carry every ProductMinDTO field, so one read serves all the indexes
+        List<ProductMinDTO> products = new ArrayList<>(rows.size());
+        for (ProductTextProjection row : rows) {
+            products.add(new ProductMinDTO(row.getId(), row.getName(), row.getPrice(), row.getImgUrl()));
+        }
+        searchIndex.rebuild(products);
+        priceIndex.rebuild(products);
+        suggestIndex.rebuild(products);
+        fuzzyIndex.rebuild(products);
+        textIndex.rebuild(rows);
+        // product categories come from their own query
+        categoryIndex.rebuild();
+    }
+}
@@ -0,0 +1,318 @@
+package com.devsuperior.dscommerce.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * Product ids ordered by price, kept as parallel primitive arrays of price keys
+ * (whole cents) and ids. Range filters are two binary searches; the arrays
+ * themselves are the ascending price order used for sorted listings. Products
+ * without a price sort first, as the database orders nulls, and match no range.
+ * <p>
+ * A price outside the packed range of 0 to {@value #MAX_CENTS} cents, or an id
+ * that does not fit in an int, cannot be indexed; while any product has one,
+ * price queries are left to the database.
+ */
+@Component
+public class ProductPriceIndex {
+
+    private static final long MAX_CENTS = Integer.MAX_VALUE;
+    private static final long NULL_KEY = -1;
+    private static final long OUT_OF_RANGE = Long.MIN_VALUE;
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductPriceIndex.class);
+
+    @Autowired
+    private ProductRepository repository;
+
+    private volatile Entries entries = new Entries(new long[0], new int[0]);
+    private volatile boolean ready;
+    private Set<Long> unindexed = new HashSet<>();
+    private final RebuildLog rebuildLog = new RebuildLog();
+
+    /**
+     * Reloads the catalog prices. Changes that arrive meanwhile are replayed on the new entries.
+     */
+    public void rebuild() {
+        startRebuild();
+        List<ProductMinDTO> products;
+        try {
+            products = repository.findAllMin();
+        }
+        catch (RuntimeException e) {
+            cancelRebuild();
+            throw e;
+        }
+        rebuild(products);
+    }
+
+    /**
+     * Starts recording changes for a rebuild from products the caller loads next; ends with
+     * {@link #rebuild(List)}, or {@link #cancelRebuild()} if the load fails.
+     */
+    synchronized void startRebuild() {
+        rebuildLog.start();
+    }
+
+    synchronized void cancelRebuild() {
+        rebuildLog.finish();
+    }
+
+    void rebuild(List<ProductMinDTO> products) {
+        long[] packed = new long[products.size()];
+        Set<Long> skipped = new HashSet<>();
+        int n = 0;
+        for (ProductMinDTO product : products) {
+            long key = priceKey(product.getPrice());
+            if (key == OUT_OF_RANGE || !hasKey(product.getId())) {
+                skipped.add(product.getId());
+            }
+            else {
+                packed[n++] = pack(key, toKey(product.getId()));
+            }
+        }
+        packed = Arrays.copyOf(packed, n);
+        Arrays.sort(packed);
+
+        long[] keys = new long[n];
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = packed[i] >> 32;
+            ids[i] = (int) packed[i];
+        }
+        synchronized (this) {
+            boolean wasIndexed = unindexed.isEmpty();
+            entries = new Entries(keys, ids);
+            unindexed = skipped;
+            for (ProductChangedEvent change : rebuildLog.finish()) {
+                apply(change);
+            }
+            updateReady(wasIndexed);
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        boolean wasIndexed = unindexed.isEmpty();
+        rebuildLog.record(event);
+        apply(event);
+        updateReady(wasIndexed);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the page is sorted by price alone, the one order this index holds.
+     */
+    public boolean canOrder(Pageable pageable) {
+        Iterator<Sort.Order> orders = pageable.getSort().iterator();
+        if (!ready || !orders.hasNext()) {
+            return false;
+        }
+        Sort.Order order = orders.next();
+        return order.getProperty().equals("price") && !orders.hasNext();
+    }
+
+    /**
+     * Product ids by ascending price, then id. The array is shared and must not be modified.
+     */
+    public int[] ascendingIds() {
+        return entries.ids;
+    }
+
+    /**
+     * Products priced within the given bounds, both inclusive and either one optional.
+     * The bounds must be finite.
+     */
+    public ProductFilter range(Double minPrice, Double maxPrice) {
+        Entries current = entries;
+        long lowest = (minPrice == null) ? NULL_KEY : Math.max(NULL_KEY, toCents(minPrice, RoundingMode.CEILING) - 1);
+        int from = firstAbove(current.keys, lowest);
+        int to = (maxPrice == null) ? current.keys.length
+                : Math.max(from, firstAbove(current.keys, toCents(maxPrice, RoundingMode.FLOOR)));
+
+        int max = -1;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, current.ids[i]);
+        }
+        long[] words = new long[(max >>> 6) + 1];
+        for (int i = from; i < to; i++) {
+            words[current.ids[i] >>> 6] |= 1L << current.ids[i];
+        }
+        return new ProductFilter(max < 0 ? new long[0] : words);
+    }
+
+    private void apply(ProductChangedEvent change) {
+        if (!hasKey(change.getProductId())) {
+            if (change.isDeleted()) {
+                unindexed.remove(change.getProductId());
+            }
+            else {
+                unindexed.add(change.getProductId());
+            }
+            return;
+        }
+        Entries current = entries;
+        int id = toKey(change.getProductId());
+        int pos = -1;
+        for (int i = 0; i < current.ids.length; i++) {
+            if (current.ids[i] == id) {
+                pos = i;
+                break;
+            }
+        }
+        long[] keys = current.keys;
+        int[] ids = current.ids;
+        if (pos >= 0) {
+            keys = remove(keys, pos);
+            ids = remove(ids, pos);
+        }
+        unindexed.remove(change.getProductId());
+        if (!change.isDeleted()) {
+            long key = priceKey(change.getProduct().getPrice());
+            if (key == OUT_OF_RANGE) {
+                unindexed.add(change.getProductId());
+            }
+            else {
+                int insertAt = insertionPoint(keys, ids, key, id);
+                keys = insert(keys, insertAt, key);
+                ids = insert(ids, insertAt, id);
+            }
+        }
+        entries = new Entries(keys, ids);
+    }
+
+    private void updateReady(boolean wasIndexed) {
+        boolean indexed = unindexed.isEmpty();
+        if (!indexed) {
+            logger.warn("Price index disabled, products {} are priced outside 0 to {} cents or have ids beyond int range",
+                    unindexed, MAX_CENTS);
+        }
+        else if (!wasIndexed) {
+            logger.info("Price index enabled again, every price and product id is within range");
+        }
+        ready = indexed;
+    }
+
+    private static int firstAbove(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int insertionPoint(long[] keys, int[] ids, long key, int id) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key || (keys[mid] == key && ids[mid] < id)) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long priceKey(Double price) {
+        if (price == null) {
+            return NULL_KEY;
+        }
+        BigDecimal cents = BigDecimal.valueOf(price).movePointRight(2).setScale(0, RoundingMode.HALF_UP);
+        if (cents.signum() < 0 || cents.compareTo(BigDecimal.valueOf(MAX_CENTS)) > 0) {
+            return OUT_OF_RANGE;
+        }
+        return cents.longValue();
+    }
+
+    // bounds past the keys select the same products as the keys' own ends, so clamp them there
+    private static long toCents(Double price, RoundingMode rounding) {
+        BigDecimal cents = BigDecimal.valueOf(price).movePointRight(2).setScale(0, rounding);
+        return cents.max(BigDecimal.valueOf(NULL_KEY)).min(BigDecimal.valueOf(MAX_CENTS + 1)).longValue();
+    }
+
+    private static long pack(long cents, int id) {
+        return (cents << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static boolean hasKey(Long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private static int toKey(Long id) {
+        return (int) (long) id;
+    }
+
+    private static long[] remove(long[] array, int pos) {
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        System.arraycopy(array, pos + 1, result, pos, array.length - pos - 1);
+        return result;
+    }
+
+    private static int[] remove(int[] array, int pos) {
+        int[] result = new int[array.length - 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        System.arraycopy(array, pos + 1, result, pos, array.length - pos - 1);
+        return result;
+    }
+
+    private static long[] insert(long[] array, int pos, long value) {
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(array, pos, result, pos + 1, array.length - pos);
+        return result;
+    }
+
+    private static int[] insert(int[] array, int pos, int value) {
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(array, pos, result, pos + 1, array.length - pos);
+        return result;
+    }
+
+    private static final class Entries {
+
+        private final long[] keys;
+        private final int[] ids;
+
+        private Entries(long[] keys, int[] ids) {
+            this.keys = keys;
+            this.ids = ids;
+        }
+    }
+}
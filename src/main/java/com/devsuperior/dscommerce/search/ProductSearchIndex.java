@@ -0,0 +1,494 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * In-memory trigram index over product names. Answers the same case-insensitive
+ * substring match as {@link ProductRepository#searchMinByName} without scanning
+ * tb_product, and pages/sorts the result over the indexed {@link ProductMinDTO}s.
+ * <p>
+ * Products are keyed by int; while any product id does not fit in one, the index
+ * reports itself not ready and name queries are left to the database.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] EMPTY = new int[0];
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "price", "imgUrl");
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, Document> documents = new HashMap<>();
+    private Map<Long, int[]> postings = new HashMap<>();
+    private int[] allIds = EMPTY;
+    private Set<Long> unkeyed = new HashSet<>();
+    private final RebuildLog rebuildLog = new RebuildLog();
+    private volatile boolean ready;
+
+    /**
+     * Reloads the catalog. Changes that arrive meanwhile are replayed on the new state.
+     */
+    public void rebuild() {
+        startRebuild();
+        List<ProductMinDTO> products;
+        try {
+            products = repository.findAllMin();
+        }
+        catch (RuntimeException e) {
+            cancelRebuild();
+            throw e;
+        }
+        rebuild(products);
+    }
+
+    /**
+     * Starts recording changes for a rebuild from products the caller loads next; ends with
+     * {@link #rebuild(List)}, or {@link #cancelRebuild()} if the load fails.
+     */
+    void startRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.start();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.finish();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void rebuild(List<ProductMinDTO> products) {
+        Map<Integer, Document> newDocuments = new HashMap<>();
+        Map<Long, IntArrayBuilder> builders = new HashMap<>();
+        IntArrayBuilder ids = new IntArrayBuilder();
+        Set<Long> skipped = new HashSet<>();
+        for (ProductMinDTO product : products) {
+            if (!hasKey(product.getId())) {
+                skipped.add(product.getId());
+                continue;
+            }
+            Document doc = new Document(product);
+            int id = toKey(product.getId());
+            newDocuments.put(id, doc);
+            ids.add(id);
+            for (long gram : trigrams(doc.key)) {
+                builders.computeIfAbsent(gram, x -> new IntArrayBuilder()).add(id);
+            }
+        }
+        Map<Long, int[]> newPostings = new HashMap<>();
+        builders.forEach((gram, builder) -> newPostings.put(gram, builder.toArray()));
+
+        lock.writeLock().lock();
+        try {
+            boolean wasKeyed = unkeyed.isEmpty();
+            documents = newDocuments;
+            postings = newPostings;
+            allIds = ids.toArray();
+            unkeyed = skipped;
+            for (ProductChangedEvent change : rebuildLog.finish()) {
+                apply(change);
+            }
+            updateReady(wasKeyed);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            boolean wasKeyed = unkeyed.isEmpty();
+            rebuildLog.record(event);
+            apply(event);
+            // not ready with every id keyed means not loaded yet, which only a rebuild changes
+            if (ready || !wasKeyed) {
+                updateReady(wasKeyed);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the index is loaded and every requested sort property is one it can order by.
+     */
+    public boolean canServe(Pageable pageable) {
+        if (!ready) {
+            return false;
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Page<ProductMinDTO> search(String name, Pageable pageable) {
+        return search(name, null, pageable);
+    }
+
+    /**
+     * Same as {@link #search(String, Pageable)}, restricted to the products in {@code filter} when it is not null.
+     */
+    public Page<ProductMinDTO> search(String name, ProductFilter filter, Pageable pageable) {
+        return search(name, filter, pageable, null);
+    }
+
+    /**
+     * Same as {@link #search(String, ProductFilter, Pageable)}, taking the page order from {@code order}
+     * instead of sorting: ids ascending by the pageable's single sort property, walked backwards when
+     * that property is descending.
+     */
+    public Page<ProductMinDTO> search(String name, ProductFilter filter, Pageable pageable, int[] order) {
+        lock.readLock().lock();
+        try {
+            int[] ids = match(normalize(name), filter);
+            return (order == null) ? toPage(ids, pageable) : toOrderedPage(ids, order, pageable);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(String name) {
+        lock.readLock().lock();
+        try {
+            return match(normalize(name), null).length;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the matching products in ascending order. The array may be shared and must not be modified.
+     */
+    public int[] matchingIds(String name, ProductFilter filter) {
+        lock.readLock().lock();
+        try {
+            return match(normalize(name), filter);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] match(String key, ProductFilter filter) {
+        if (key.isEmpty() && filter == null) {
+            return allIds;
+        }
+        int[] candidates = allIds;
+        if (key.length() >= GRAM) {
+            List<int[]> lists = new ArrayList<>();
+            for (long gram : trigrams(key)) {
+                int[] list = postings.get(gram);
+                if (list == null) {
+                    return EMPTY;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(x -> x.length));
+            candidates = lists.get(0);
+            for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+                candidates = intersect(candidates, lists.get(i));
+            }
+        }
+        // trigrams only narrow the candidates; the substring check is what LIKE would do
+        int[] result = new int[candidates.length];
+        int n = 0;
+        for (int id : candidates) {
+            if (documents.get(id).key.contains(key) && (filter == null || filter.test(id))) {
+                result[n++] = id;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private Page<ProductMinDTO> toPage(int[] ids, Pageable pageable) {
+        Comparator<ProductMinDTO> comparator = comparator(pageable.getSort());
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), ids.length) : 0;
+        int to = pageable.isPaged() ? (int) Math.min((long) from + pageable.getPageSize(), ids.length) : ids.length;
+
+        List<ProductMinDTO> content;
+        if (comparator == null) {
+            content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(documents.get(ids[i]).product);
+            }
+        }
+        else {
+            content = sortedRange(ids, comparator, from, to);
+        }
+        return new PageImpl<>(content, pageable, ids.length);
+    }
+
+    private Page<ProductMinDTO> toOrderedPage(int[] ids, int[] order, Pageable pageable) {
+        long[] matched = new long[(ids.length == 0) ? 0 : (ids[ids.length - 1] >>> 6) + 1];
+        for (int id : ids) {
+            matched[id >>> 6] |= 1L << id;
+        }
+        long from = pageable.isPaged() ? pageable.getOffset() : 0;
+        long to = pageable.isPaged() ? from + pageable.getPageSize() : ids.length;
+        boolean descending = pageable.getSort().iterator().next().isDescending();
+
+        List<ProductMinDTO> content = new ArrayList<>();
+        long seen = 0;
+        for (int i = 0; i < order.length && seen < to; i++) {
+            int id = order[descending ? order.length - 1 - i : i];
+            int word = id >>> 6;
+            if (word < matched.length && (matched[word] & (1L << id)) != 0) {
+                if (seen >= from) {
+                    content.add(documents.get(id).product);
+                }
+                seen++;
+            }
+        }
+        return new PageImpl<>(content, pageable, ids.length);
+    }
+
+    private List<ProductMinDTO> sortedRange(int[] ids, Comparator<ProductMinDTO> comparator, int from, int to) {
+        if (from == to) {
+            return new ArrayList<>();
+        }
+        List<ProductMinDTO> sorted;
+        if (to < ids.length / 4) {
+            // early pages only need the first 'to' elements: keep a bounded heap instead of sorting everything
+            PriorityQueue<ProductMinDTO> heap = new PriorityQueue<>(to + 1, comparator.reversed());
+            for (int id : ids) {
+                heap.add(documents.get(id).product);
+                if (heap.size() > to) {
+                    heap.poll();
+                }
+            }
+            sorted = new ArrayList<>(heap);
+        }
+        else {
+            sorted = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                sorted.add(documents.get(id).product);
+            }
+        }
+        sorted.sort(comparator);
+        return new ArrayList<>(sorted.subList(from, to));
+    }
+
+    private void apply(ProductChangedEvent change) {
+        if (!hasKey(change.getProductId())) {
+            if (change.isDeleted()) {
+                unkeyed.remove(change.getProductId());
+            }
+            else {
+                unkeyed.add(change.getProductId());
+            }
+            return;
+        }
+        remove(toKey(change.getProductId()));
+        if (!change.isDeleted()) {
+            ProductDTO dto = change.getProduct();
+            add(new ProductMinDTO(dto.getId(), dto.getName(), dto.getPrice(), dto.getImgUrl()));
+        }
+    }
+
+    private void add(ProductMinDTO product) {
+        Document doc = new Document(product);
+        int id = toKey(product.getId());
+        documents.put(id, doc);
+        allIds = insert(allIds, id);
+        for (long gram : trigrams(doc.key)) {
+            postings.put(gram, insert(postings.getOrDefault(gram, EMPTY), id));
+        }
+    }
+
+    private void remove(int id) {
+        Document doc = documents.remove(id);
+        if (doc == null) {
+            return;
+        }
+        allIds = delete(allIds, id);
+        for (long gram : trigrams(doc.key)) {
+            int[] list = delete(postings.get(gram), id);
+            if (list.length == 0) {
+                postings.remove(gram);
+            }
+            else {
+                postings.put(gram, list);
+            }
+        }
+    }
+
+    private static Comparator<ProductMinDTO> comparator(Sort sort) {
+        if (sort.isUnsorted()) {
+            return null;
+        }
+        Comparator<ProductMinDTO> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductMinDTO> next = propertyComparator(order);
+            result = (result == null) ? next : result.thenComparing(next);
+        }
+        return result.thenComparing(ProductMinDTO::getId);
+    }
+
+    private static Comparator<ProductMinDTO> propertyComparator(Sort.Order order) {
+        Comparator<String> strings = order.isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+        Comparator<ProductMinDTO> comparator = switch (order.getProperty()) {
+            case "id" -> Comparator.comparing(ProductMinDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "name" -> Comparator.comparing(ProductMinDTO::getName, Comparator.nullsFirst(strings));
+            case "price" -> Comparator.comparing(ProductMinDTO::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "imgUrl" -> Comparator.comparing(ProductMinDTO::getImgUrl, Comparator.nullsFirst(strings));
+            default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+        };
+        return order.isDescending() ? comparator.reversed() : comparator;
+    }
+
+    private static String normalize(String text) {
+        return (text == null) ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<Long> trigrams(String key) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            grams.add(((long) key.charAt(i) << 32) | ((long) key.charAt(i + 1) << 16) | key.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private void updateReady(boolean wasKeyed) {
+        boolean keyed = unkeyed.isEmpty();
+        if (!keyed) {
+            logger.warn("Search index disabled, product ids {} do not fit in an int", unkeyed);
+        }
+        else if (!wasKeyed) {
+            logger.info("Search index enabled again, every product id fits in an int");
+        }
+        ready = keyed;
+    }
+
+    private static boolean hasKey(Long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private static int toKey(Long id) {
+        return (int) (long) id;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            }
+            else if (a[i] > b[j]) {
+                j++;
+            }
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] insert(int[] sorted, int value) {
+        int pos = Arrays.binarySearch(sorted, value);
+        if (pos >= 0) {
+            return sorted;
+        }
+        pos = -pos - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(sorted, pos, result, pos + 1, sorted.length - pos);
+        return result;
+    }
+
+    private static int[] delete(int[] sorted, int value) {
+        int pos = Arrays.binarySearch(sorted, value);
+        if (pos < 0) {
+            return sorted;
+        }
+        int[] result = new int[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, pos);
+        System.arraycopy(sorted, pos + 1, result, pos, sorted.length - pos - 1);
+        return result;
+    }
+
+    private static final class Document {
+
+        private final ProductMinDTO product;
+        private final String key;
+
+        private Document(ProductMinDTO product) {
+            this.product = product;
+            this.key = normalize(product.getName());
+        }
+    }
+
+    private static final class IntArrayBuilder {
+
+        private int[] data = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductSuggestionDTO;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * Trie over the folded product names, keyed from the start of every word so that
+ * "gam" suggests "PC Gamer". Every node keeps its best {@link #TOP_K} completions
+ * (shortest name first), so a lookup is one walk down the typed prefix. Paths stop
+ * at {@link #MAX_DEPTH} characters; longer prefixes are checked against the name.
+ * <p>
+ * Nodes hold int product ids; while any product id does not fit in one, the index
+ * reports itself not ready and suggestions are left to the database.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    public static final int TOP_K = 20;
+    private static final int MAX_DEPTH = 32;
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+    private Map<Integer, Entry> entries = new HashMap<>();
+    private Set<Long> unkeyed = new HashSet<>();
+    private final RebuildLog rebuildLog = new RebuildLog();
+    private volatile boolean ready;
+
+    /**
+     * Reloads the catalog names. Changes that arrive meanwhile are replayed on the new trie.
+     */
+    public void rebuild() {
+        startRebuild();
+        List<ProductMinDTO> products;
+        try {
+            products = repository.findAllMin();
+        }
+        catch (RuntimeException e) {
+            cancelRebuild();
+            throw e;
+        }
+        rebuild(products);
+    }
+
+    /**
+     * Starts recording changes for a rebuild from products the caller loads next; ends with
+     * {@link #rebuild(List)}, or {@link #cancelRebuild()} if the load fails.
+     */
+    void startRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.start();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.finish();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void rebuild(List<ProductMinDTO> products) {
+        Node newRoot = new Node();
+        Map<Integer, Entry> newEntries = new HashMap<>();
+        Set<Long> skipped = new HashSet<>();
+        for (ProductMinDTO product : products) {
+            if (!hasKey(product.getId())) {
+                skipped.add(product.getId());
+                continue;
+            }
+            Entry entry = new Entry(product.getId(), product.getName());
+            newEntries.put(entry.key, entry);
+            add(newRoot, entry);
+        }
+        refreshAll(newRoot, newEntries);
+
+        lock.writeLock().lock();
+        try {
+            boolean wasKeyed = unkeyed.isEmpty();
+            root = newRoot;
+            entries = newEntries;
+            unkeyed = skipped;
+            for (ProductChangedEvent change : rebuildLog.finish()) {
+                apply(change);
+            }
+            updateReady(wasKeyed);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            boolean wasKeyed = unkeyed.isEmpty();
+            rebuildLog.record(event);
+            apply(event);
+            // not ready with every id keyed means not loaded yet, which only a rebuild changes
+            if (ready || !wasKeyed) {
+                updateReady(wasKeyed);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Up to {@code limit} (at most {@link #TOP_K}) products with a word starting with {@code prefix},
+     * shortest names first.
+     */
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        String key = TextNormalizer.fold(prefix);
+        List<ProductSuggestionDTO> result = new ArrayList<>();
+        if (key.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < Math.min(key.length(), MAX_DEPTH) && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return result;
+            }
+            int[] ids = (key.length() <= MAX_DEPTH) ? node.top : longPrefixMatches(node, key);
+            for (int i = 0; i < ids.length && result.size() < limit; i++) {
+                Entry entry = entries.get(ids[i]);
+                result.add(new ProductSuggestionDTO(entry.id, entry.name));
+            }
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangedEvent change) {
+        if (!hasKey(change.getProductId())) {
+            if (change.isDeleted()) {
+                unkeyed.remove(change.getProductId());
+            }
+            else {
+                unkeyed.add(change.getProductId());
+            }
+            return;
+        }
+        Entry old = entries.remove(toKey(change.getProductId()));
+        if (old != null) {
+            remove(root, old);
+            refreshPaths(old);
+        }
+        if (!change.isDeleted()) {
+            Entry entry = new Entry(change.getProductId(), change.getProduct().getName());
+            entries.put(entry.key, entry);
+            add(root, entry);
+            refreshPaths(entry);
+        }
+    }
+
+    private void updateReady(boolean wasKeyed) {
+        boolean keyed = unkeyed.isEmpty();
+        if (!keyed) {
+            logger.warn("Suggest index disabled, product ids {} do not fit in an int", unkeyed);
+        }
+        else if (!wasKeyed) {
+            logger.info("Suggest index enabled again, every product id fits in an int");
+        }
+        ready = keyed;
+    }
+
+    private static boolean hasKey(Long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private static int toKey(Long id) {
+        return (int) (long) id;
+    }
+
+    private int[] longPrefixMatches(Node node, String key) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        collectAll(node, ids);
+        return ids.stream()
+                .filter(id -> entries.get(id).matches(key))
+                .sorted(rank(entries))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static void collectAll(Node node, Set<Integer> ids) {
+        for (int id : node.ids) {
+            ids.add(id);
+        }
+        for (Node child : node.children) {
+            collectAll(child, ids);
+        }
+    }
+
+    // a node's top only depends on its children, so refresh the touched nodes deepest first
+    private void refreshPaths(Entry entry) {
+        List<List<Node>> levels = new ArrayList<>();
+        for (int start : entry.wordStarts()) {
+            Node node = root;
+            int end = Math.min(entry.folded.length(), start + MAX_DEPTH);
+            for (int depth = 0; node != null; depth++) {
+                if (levels.size() == depth) {
+                    levels.add(new ArrayList<>());
+                }
+                levels.get(depth).add(node);
+                node = (start + depth < end) ? node.child(entry.folded.charAt(start + depth)) : null;
+            }
+        }
+        for (int depth = levels.size() - 1; depth >= 0; depth--) {
+            for (Node node : levels.get(depth)) {
+                refresh(node, entries);
+            }
+        }
+    }
+
+    private static void refreshAll(Node node, Map<Integer, Entry> entries) {
+        for (Node child : node.children) {
+            refreshAll(child, entries);
+        }
+        refresh(node, entries);
+    }
+
+    private static void refresh(Node node, Map<Integer, Entry> entries) {
+        Set<Integer> candidates = new LinkedHashSet<>();
+        for (int id : node.ids) {
+            candidates.add(id);
+        }
+        for (Node child : node.children) {
+            for (int id : child.top) {
+                candidates.add(id);
+            }
+        }
+        node.top = candidates.stream()
+                .sorted(rank(entries))
+                .limit(TOP_K)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static Comparator<Integer> rank(Map<Integer, Entry> entries) {
+        return Comparator.<Integer>comparingInt(id -> entries.get(id).folded.length()).thenComparing(id -> id);
+    }
+
+    private static void add(Node root, Entry entry) {
+        for (int start : entry.wordStarts()) {
+            Node node = root;
+            int end = Math.min(entry.folded.length(), start + MAX_DEPTH);
+            for (int i = start; i < end; i++) {
+                node = node.childOrCreate(entry.folded.charAt(i));
+            }
+            node.addId(entry.key);
+        }
+    }
+
+    private static void remove(Node root, Entry entry) {
+        for (int start : entry.wordStarts()) {
+            remove(root, entry, start, Math.min(entry.folded.length(), start + MAX_DEPTH));
+        }
+    }
+
+    private static boolean remove(Node node, Entry entry, int pos, int end) {
+        if (pos == end) {
+            node.removeId(entry.key);
+        }
+        else {
+            char c = entry.folded.charAt(pos);
+            Node child = node.child(c);
+            if (child != null && remove(child, entry, pos + 1, end)) {
+                node.removeChild(c);
+            }
+        }
+        return node.ids.length == 0 && node.children.length == 0;
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+        private final int key;
+        private final String name;
+        private final String folded;
+
+        private Entry(Long id, String name) {
+            this.id = id;
+            this.key = toKey(id);
+            this.name = name;
+            this.folded = TextNormalizer.fold(name);
+        }
+
+        private List<Integer> wordStarts() {
+            List<Integer> starts = new ArrayList<>();
+            for (int i = 0; i < folded.length(); i++) {
+                if (i == 0 || folded.charAt(i - 1) == ' ') {
+                    starts.add(i);
+                }
+            }
+            return starts;
+        }
+
+        private boolean matches(String key) {
+            return folded.startsWith(key) || folded.contains(" " + key);
+        }
+    }
+
+    /**
+     * Children are kept in parallel arrays sorted by label; ids are the names whose indexed path ends here,
+     * top the best ranked ids of the whole subtree.
+     */
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_IDS = new int[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int[] ids = NO_IDS;
+        private int[] top = NO_IDS;
+
+        private Node child(char c) {
+            int pos = Arrays.binarySearch(labels, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            int pos = Arrays.binarySearch(labels, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            pos = -pos - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newLabels[pos] = c;
+            newChildren[pos] = child;
+            System.arraycopy(labels, pos, newLabels, pos + 1, labels.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char c) {
+            int pos = Arrays.binarySearch(labels, c);
+            if (pos < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(labels, pos + 1, newLabels, pos, labels.length - pos - 1);
+            System.arraycopy(children, pos + 1, newChildren, pos, children.length - pos - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        private void addId(int id) {
+            int pos = Arrays.binarySearch(ids, id);
+            if (pos < 0) {
+                pos = -pos - 1;
+                int[] newIds = new int[ids.length + 1];
+                System.arraycopy(ids, 0, newIds, 0, pos);
+                newIds[pos] = id;
+                System.arraycopy(ids, pos, newIds, pos + 1, ids.length - pos);
+                ids = newIds;
+            }
+        }
+
+        private void removeId(int id) {
+            int pos = Arrays.binarySearch(ids, id);
+            if (pos >= 0) {
+                int[] newIds = new int[ids.length - 1];
+                System.arraycopy(ids, 0, newIds, 0, pos);
+                System.arraycopy(ids, pos + 1, newIds, pos, ids.length - pos - 1);
+                ids = newIds;
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.projections.ProductTextProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * Inverted index over product name and description ranked with BM25. A name
+ * occurrence counts {@link #NAME_WEIGHT} times as much as a description one, both
+ * in term frequency and in document length (the BM25F simplification).
+ */
+@Component
+public class ProductTextIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final int NAME_WEIGHT = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "no", "na", "para", "com", "um", "uma",
+            "the", "of", "and", "for", "in", "on", "to");
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private final RebuildLog rebuildLog = new RebuildLog();
+    private volatile boolean ready;
+
+    /**
+     * Reloads the catalog text. Changes that arrive meanwhile are replayed on the new state.
+     */
+    public void rebuild() {
+        startRebuild();
+        List<ProductTextProjection> rows;
+        try {
+            rows = repository.searchTextFields();
+        }
+        catch (RuntimeException e) {
+            cancelRebuild();
+            throw e;
+        }
+        rebuild(rows);
+    }
+
+    /**
+     * Starts recording changes for a rebuild from rows the caller loads next; ends with
+     * {@link #rebuild(List)}, or {@link #cancelRebuild()} if the load fails.
+     */
+    void startRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.start();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.finish();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void rebuild(List<ProductTextProjection> rows) {
+        State newState = new State();
+        for (ProductTextProjection row : rows) {
+            newState.add(new ProductMinDTO(row.getId(), row.getName(), row.getPrice(), row.getImgUrl()),
+                    row.getDescription());
+        }
+
+        lock.writeLock().lock();
+        try {
+            state = newState;
+            for (ProductChangedEvent change : rebuildLog.finish()) {
+                apply(change);
+            }
+            ready = true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            rebuildLog.record(event);
+            apply(event);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Products containing any of the query terms, highest BM25 score first.
+     */
+    public Page<ProductMinDTO> search(String query, Pageable pageable) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        RankedHits hits = new RankedHits();
+        lock.readLock().lock();
+        try {
+            State current = state;
+            if (current.documentCount > 0) {
+                double[] scores = new double[current.slots.size()];
+                List<Integer> matched = new ArrayList<>();
+                double averageLength = (double) current.totalLength / current.documentCount;
+                for (String term : terms) {
+                    Postings list = current.postings.get(term);
+                    if (list == null) {
+                        continue;
+                    }
+                    double idf = Math.log(1 + (current.documentCount - list.size + 0.5) / (list.size + 0.5));
+                    for (int i = 0; i < list.size; i++) {
+                        int slot = list.slots[i];
+                        double tf = list.frequencies[i];
+                        double norm = K1 * (1 - B + B * current.slots.get(slot).length / averageLength);
+                        if (scores[slot] == 0) {
+                            matched.add(slot);
+                        }
+                        scores[slot] += idf * tf * (K1 + 1) / (tf + norm);
+                    }
+                }
+                for (int slot : matched) {
+                    hits.add(current.slots.get(slot).product, scores[slot]);
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+
+        return hits.toPage(pageable);
+    }
+
+    /**
+     * Number of document slots, live or free; bounded by the largest the catalog has been since the last rebuild.
+     */
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return state.slots.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangedEvent change) {
+        state.remove(change.getProductId());
+        if (!change.isDeleted()) {
+            ProductDTO dto = change.getProduct();
+            state.add(new ProductMinDTO(dto.getId(), dto.getName(), dto.getPrice(), dto.getImgUrl()), dto.getDescription());
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String folded = TextNormalizer.fold(text);
+        if (!folded.isEmpty()) {
+            for (String token : folded.split(" ")) {
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static final class State {
+
+        // a removed product's slot is reused by the next one added, so scores[] stays catalog-sized
+        private final List<Document> slots = new ArrayList<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private int documentCount;
+        private long totalLength;
+
+        private void add(ProductMinDTO product, String description) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            List<String> nameTokens = tokenize(product.getName());
+            List<String> descriptionTokens = tokenize(description);
+            for (String token : nameTokens) {
+                frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+            }
+            for (String token : descriptionTokens) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+            int length = NAME_WEIGHT * nameTokens.size() + descriptionTokens.size();
+
+            Document document = new Document(product, frequencies.keySet().toArray(new String[0]), length);
+            Integer free = freeSlots.poll();
+            int slot;
+            if (free == null) {
+                slot = slots.size();
+                slots.add(document);
+            }
+            else {
+                slot = free;
+                slots.set(slot, document);
+            }
+            slotById.put(product.getId(), slot);
+            for (int t = 0; t < document.terms.length; t++) {
+                String term = document.terms[t];
+                document.positions[t] = postings.computeIfAbsent(term, x -> new Postings())
+                        .add(slot, frequencies.get(term), t);
+            }
+            documentCount++;
+            totalLength += length;
+        }
+
+        private void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            Document document = slots.set(slot, null);
+            freeSlots.push(slot);
+            for (int t = 0; t < document.terms.length; t++) {
+                Postings list = postings.get(document.terms[t]);
+                int position = document.positions[t];
+                list.remove(position);
+                if (list.size == 0) {
+                    postings.remove(document.terms[t]);
+                }
+                else if (position < list.size) {
+                    // the last entry moved into the freed position; tell its document where it went
+                    slots.get(list.slots[position]).positions[list.termIndexes[position]] = position;
+                }
+            }
+            documentCount--;
+            totalLength -= document.length;
+        }
+    }
+
+    private static final class Document {
+
+        private final ProductMinDTO product;
+        private final String[] terms;
+        // where this document sits in the postings of terms[i]
+        private final int[] positions;
+        private final int length;
+
+        private Document(ProductMinDTO product, String[] terms, int length) {
+            this.product = product;
+            this.terms = terms;
+            this.positions = new int[terms.length];
+            this.length = length;
+        }
+    }
+
+    /**
+     * Unordered entries of one term: document slot, term frequency and the term's index in that
+     * document's terms, which lets a removal swap the last entry in without searching.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[2];
+        private int[] frequencies = new int[2];
+        private int[] termIndexes = new int[2];
+        private int size;
+
+        private int add(int slot, int frequency, int termIndex) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+                termIndexes = Arrays.copyOf(termIndexes, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            termIndexes[size] = termIndex;
+            return size++;
+        }
+
+        private void remove(int position) {
+            size--;
+            slots[position] = slots[size];
+            frequencies[position] = frequencies[size];
+            termIndexes[position] = termIndexes[size];
+        }
+    }
+}
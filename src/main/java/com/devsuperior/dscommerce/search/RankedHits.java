@@ -0,0 +1,45 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+
+/**
+ * Scored search results, paged best score first with ties broken by product id.
+ */
+final class RankedHits {
+
+    private final List<Hit> hits = new ArrayList<>();
+
+    void add(ProductMinDTO product, double score) {
+        hits.add(new Hit(product, score));
+    }
+
+    Page<ProductMinDTO> toPage(Pageable pageable) {
+        hits.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score)
+                : Long.compare(a.product.getId(), b.product.getId()));
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), hits.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), hits.size()) : hits.size();
+        List<ProductMinDTO> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(hits.get(i).product);
+        }
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    private static final class Hit {
+
+        private final ProductMinDTO product;
+        private final double score;
+
+        private Hit(ProductMinDTO product, double score) {
+            this.product = product;
+            this.score = score;
+        }
+    }
+}
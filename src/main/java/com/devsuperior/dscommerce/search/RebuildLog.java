@@ -0,0 +1,40 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+
+/**
+ * Product changes an index received while a rebuild was loading the catalog outside its lock.
+ * They were applied to the state being replaced, so the rebuild replays them on its new state
+ * as it swaps it in. Applying a change is idempotent, so replaying one the load already saw is
+ * harmless. Guarded by the owning index's write lock.
+ */
+final class RebuildLog {
+
+    private final List<ProductChangedEvent> changes = new ArrayList<>();
+    private int rebuilds;
+
+    void start() {
+        rebuilds++;
+    }
+
+    void record(ProductChangedEvent change) {
+        if (rebuilds > 0) {
+            changes.add(change);
+        }
+    }
+
+    /**
+     * Ends a rebuild, returning the changes to replay on its state; a later rebuild still running
+     * keeps them too, since its load may have started before they were applied.
+     */
+    List<ProductChangedEvent> finish() {
+        List<ProductChangedEvent> replay = new ArrayList<>(changes);
+        if (--rebuilds == 0) {
+            changes.clear();
+        }
+        return replay;
+    }
+}
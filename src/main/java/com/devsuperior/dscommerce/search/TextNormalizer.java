@@ -0,0 +1,42 @@
+package com.devsuperior.dscommerce.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Folds text for accent- and case-insensitive matching: "Eletrônicos  4K" becomes "eletronicos 4k".
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Lower case, accents stripped, every run of non letters/digits collapsed to a single space, trimmed.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(Character.toLowerCase(c));
+            }
+            else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,14 +1,20 @@
 package com.devsuperior.dscommerce.services;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CategorySnapshot;
 import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.events.CategoryChangedEvent;
 import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class CategoryService {
@@ -16,9 +22,44 @@ public class CategoryService {
     @Autowired
     private CategoryRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile CategorySnapshot snapshot;
+
     public List<CategoryDTO> findAll() {
+        return snapshot().getCategories();
+    }
+
+    /**
+     * Current category list, loaded once and then reused until a category changes.
+     */
+    public CategorySnapshot snapshot() {
+        CategorySnapshot current = snapshot;
+        if (current == null || current.getVersion() != version.get()) {
+            current = load();
+            snapshot = current;
+        }
+        return current;
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        // a load racing with this change keeps the old version number and is discarded on the next read
+        version.incrementAndGet();
+    }
+
+    private CategorySnapshot load() {
+        long loadedVersion = version.get();
         List<Category> result = repository.findAll();
-        return result.stream().map(x -> new CategoryDTO(x)).toList();
+        List<CategoryDTO> categories = result.stream().map(x -> new CategoryDTO(x)).toList();
+        try {
+            return new CategorySnapshot(loadedVersion, categories, objectMapper.writeValueAsBytes(categories));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode category list", e);
+        }
     }
 }
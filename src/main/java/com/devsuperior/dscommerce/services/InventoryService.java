@@ -0,0 +1,236 @@
+package com.devsuperior.dscommerce.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsuperior.dscommerce.dto.InventoryDTO;
+import com.devsuperior.dscommerce.entities.Inventory;
+import com.devsuperior.dscommerce.repositories.InventoryRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.exceptions.UnprocessableEntityException;
+
+/**
+ * Stock reservation for orders. The live stock of every controlled product is an in-memory
+ * counter taken with a compare-and-set loop, so buyers of the same product never wait on a
+ * lock or a database row. Changed counters are written back to tb_inventory on a fixed delay
+ * and once more on shutdown.
+ * <p>
+ * This instance must be the only writer of tb_inventory, and a crash loses the reservations
+ * made since the last write-back. Admin updates go through the same counters, see
+ * {@link #update(Long, InventoryDTO)}.
+ */
+@Service
+public class InventoryService implements SmartLifecycle {
+
+    private static final String UPDATE_AVAILABLE = "UPDATE tb_inventory SET available = ? WHERE product_id = ?";
+    private static final String MERGE_AVAILABLE =
+            "MERGE INTO tb_inventory t " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT))) AS s (product_id, available) " +
+            "ON t.product_id = s.product_id " +
+            "WHEN MATCHED THEN UPDATE SET available = s.available " +
+            "WHEN NOT MATCHED THEN INSERT (product_id, available) VALUES (s.product_id, s.available)";
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    private final InventoryRepository repository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration flushInterval;
+
+    private final ConcurrentMap<Long, AtomicLong> stock = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private ScheduledExecutorService flusher;
+
+    public InventoryService(InventoryRepository repository, ProductRepository productRepository,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${inventory.flush-interval}") Duration flushInterval) {
+        this.repository = repository;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Takes the quantities out of stock, all or nothing. Products without inventory are not
+     * limited. Inside a transaction, the reservation is given back if it rolls back.
+     *
+     * @throws UnprocessableEntityException when a quantity is not positive or a product does not have enough stock
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        // a negative take would add stock, so nothing is taken until every line is checked
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if (line.getValue() == null || line.getValue() <= 0) {
+                throw new UnprocessableEntityException("Quantidade inválida para o produto: " + line.getKey());
+            }
+        }
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            AtomicLong available = stock.get(line.getKey());
+            if (available == null) {
+                continue;
+            }
+            if (!take(available, line.getValue())) {
+                release(reserved);
+                throw new UnprocessableEntityException("Estoque insuficiente para o produto: " + line.getKey());
+            }
+            dirty.add(line.getKey());
+            reserved.put(line.getKey(), line.getValue());
+        }
+
+        if (!reserved.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(reserved);
+                    }
+                }
+            });
+        }
+    }
+
+    public void release(Map<Long, Integer> quantities) {
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            AtomicLong available = stock.get(line.getKey());
+            if (available != null) {
+                available.addAndGet(line.getValue());
+                dirty.add(line.getKey());
+            }
+        }
+    }
+
+    public InventoryDTO findByProduct(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Recurso não encontrado");
+        }
+        AtomicLong available = stock.get(productId);
+        return new InventoryDTO(productId, available == null ? null : available.get());
+    }
+
+    /**
+     * Sets the stock of a product, starting stock control for it if needed. The change is applied
+     * to the live counter as a delta from the value read when the update starts, with the same
+     * compare-and-set as reservations, so an order reserved meanwhile is not overwritten. Written
+     * through to the database so a new row exists before the next write-back.
+     */
+    public InventoryDTO update(Long productId, InventoryDTO dto) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Recurso não encontrado");
+        }
+        AtomicLong available = stock.get(productId);
+        if (available == null) {
+            jdbcTemplate.update(MERGE_AVAILABLE, productId, dto.getAvailable());
+            available = stock.putIfAbsent(productId, new AtomicLong(dto.getAvailable()));
+            if (available == null) {
+                return new InventoryDTO(productId, dto.getAvailable());
+            }
+        }
+        long result = adjust(available, dto.getAvailable() - available.get());
+        jdbcTemplate.update(MERGE_AVAILABLE, productId, result);
+        // a write-back that read an older value may still land after the merge
+        dirty.add(productId);
+        return new InventoryDTO(productId, result);
+    }
+
+    @Override
+    public void start() {
+        for (Inventory inventory : repository.findAll()) {
+            stock.put(inventory.getProductId(), new AtomicLong(inventory.getAvailable()));
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> new Thread(task, "inventory-flush"));
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushInterval.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // below order ingestion's phase, so the last write-back includes the orders it drained
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        // an id is removed before its value is read, so a later change marks it dirty again
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext();) {
+            Long id = it.next();
+            it.remove();
+            ids.add(id);
+            rows.add(new Object[] {stock.get(id).get(), id});
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_AVAILABLE, rows);
+        }
+        catch (RuntimeException e) {
+            dirty.addAll(ids);
+            logger.warn("Inventory write-back failed, retrying on the next run", e);
+        }
+    }
+
+    // never below zero: units reserved meanwhile are already gone
+    private static long adjust(AtomicLong available, long delta) {
+        long current;
+        long next;
+        do {
+            current = available.get();
+            next = Math.max(0, current + delta);
+        } while (!available.compareAndSet(current, next));
+        return next;
+    }
+
+    private static boolean take(AtomicLong available, int quantity) {
+        long current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+        return true;
+    }
+}
@@ -0,0 +1,346 @@
+package com.devsuperior.dscommerce.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderTicketDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.OrderStatus;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.OrdersPlacedEvent;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Asynchronous order intake. Orders are validated and priced on the request thread, queued,
+ * and written by a single writer thread that commits whatever has queued up in one
+ * transaction (group commit). Callers poll a ticket for the outcome.
+ * <p>
+ * A ticket stays pending, and is never evicted, until the writer settles its order; only
+ * then does it move to a cache that expires it. The queue bounds how many can be pending.
+ */
+@Service
+public class OrderIngestionService implements SmartLifecycle {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIngestionService.class);
+
+    private final OrderService orderService;
+    private final InventoryService inventoryService;
+    private final UserService userService;
+    private final AuthService authService;
+    private final OrderRepository repository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BlockingQueue<PendingOrder> queue;
+    private final int maxBatch;
+    private final Duration enqueueTimeout;
+    private final Map<String, Ticket> pendingTickets = new ConcurrentHashMap<>();
+    private final Cache<String, Ticket> tickets;
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public OrderIngestionService(OrderService orderService, InventoryService inventoryService,
+                                 UserService userService, AuthService authService,
+                                 OrderRepository repository, ProductRepository productRepository,
+                                 UserRepository userRepository, TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${orders.ingestion.queue-capacity}") int queueCapacity,
+                                 @Value("${orders.ingestion.max-batch}") int maxBatch,
+                                 @Value("${orders.ingestion.enqueue-timeout}") Duration enqueueTimeout,
+                                 @Value("${orders.ingestion.ticket-ttl}") Duration ticketTtl,
+                                 @Value("${orders.ingestion.ticket-maximum-size}") long ticketMaximumSize) {
+        this.orderService = orderService;
+        this.inventoryService = inventoryService;
+        this.userService = userService;
+        this.authService = authService;
+        this.repository = repository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.enqueueTimeout = enqueueTimeout;
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(ticketTtl)
+                .maximumSize(ticketMaximumSize)
+                .build();
+    }
+
+    /**
+     * Validates the order and queues it. Once this returns the order is acknowledged and
+     * will be written, including on graceful shutdown.
+     *
+     * @throws ServiceUnavailableException when the queue stays full for the enqueue timeout
+     */
+    public OrderTicketDTO submit(OrderDTO dto) {
+        Long clientId = userService.authenticated().getId();
+        Map<Long, Integer> quantities = orderService.mergeLines(dto);
+        Map<Long, Double> prices = new HashMap<>();
+        for (Product product : orderService.loadProducts(quantities.keySet()).values()) {
+            prices.put(product.getId(), product.getPrice());
+        }
+        PendingOrder pending = new PendingOrder(UUID.randomUUID().toString(), clientId, Instant.now(),
+                quantities, prices);
+        OrderTicketDTO ticket = new OrderTicketDTO(pending.ticketId, OrderTicketDTO.Status.PENDING, null, null);
+
+        // stock is held from acknowledgement until the writer either saves the order or gives up on it
+        inventoryService.reserve(quantities);
+        boolean queued = false;
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new ServiceUnavailableException("Recebimento de pedidos indisponível");
+            }
+            pendingTickets.put(pending.ticketId, new Ticket(clientId, ticket));
+            if (!queue.offer(pending, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                pendingTickets.remove(pending.ticketId);
+                throw new ServiceUnavailableException("Fila de pedidos cheia, tente novamente");
+            }
+            queued = true;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendingTickets.remove(pending.ticketId);
+            throw new ServiceUnavailableException("Recebimento de pedidos indisponível");
+        }
+        finally {
+            acceptLock.readLock().unlock();
+            if (!queued) {
+                inventoryService.release(quantities);
+            }
+        }
+        return ticket;
+    }
+
+    @Transactional(readOnly = true)
+    public OrderTicketDTO findTicket(String id) {
+        Ticket ticket = pendingTickets.get(id);
+        if (ticket == null) {
+            ticket = tickets.getIfPresent(id);
+        }
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Recurso não encontrado");
+        }
+        authService.validateSelfOrAdmin(ticket.clientId);
+        return ticket.state;
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        running = true;
+        writer = new Thread(this::drain, "order-ingestion");
+        writer.start();
+    }
+
+    // stop accepting first, then let the writer empty the queue before returning
+    @Override
+    public void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        }
+        finally {
+            acceptLock.writeLock().unlock();
+        }
+        running = false;
+        try {
+            writer.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // below the web server's phases, so it stops after in-flight requests have finished
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                write(batch);
+            }
+            catch (InterruptedException e) {
+                // acknowledged orders are still queued; keep draining until stop() says otherwise
+            }
+            catch (Throwable e) {
+                // write() settles its own tickets; whatever still escapes must not kill the only writer
+                logger.error("Order ingestion writer failed on a batch", e);
+            }
+            finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction. Only a failure known to have rolled it back, a data
+     * access or transaction error raised before commit, is retried order by order; anything
+     * else fails the tickets, since rewriting orders whose commit may have landed would
+     * insert them twice. Errors are caught too: the writer thread must outlive any batch.
+     */
+    private void write(List<PendingOrder> batch) {
+        AtomicBoolean committing = new AtomicBoolean();
+        List<Order> orders;
+        try {
+            orders = transactionTemplate.execute(status -> {
+                List<Order> saved = repository.saveAll(batch.stream().map(this::toEntity).toList());
+                // flushed here so constraint violations roll back inside the callback rather than at commit
+                repository.flush();
+                eventPublisher.publishEvent(new OrdersPlacedEvent(saved));
+                committing.set(true);
+                return saved;
+            });
+        }
+        catch (Throwable e) {
+            if (committing.get() || !(e instanceof DataAccessException || e instanceof TransactionException)) {
+                logger.error("Order batch write failed, its {} tickets marked as failed", batch.size(), e);
+                for (PendingOrder pending : batch) {
+                    fail(pending, committing.get());
+                }
+                return;
+            }
+            logger.warn("Order batch write rolled back, writing its {} orders one by one", batch.size(), e);
+            writeEach(batch);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), orders.get(i).getId());
+        }
+    }
+
+    // one bad order must not sink the rest of its group
+    private void writeEach(List<PendingOrder> batch) {
+        for (PendingOrder pending : batch) {
+            AtomicBoolean committing = new AtomicBoolean();
+            try {
+                Order order = transactionTemplate.execute(status -> {
+                    Order saved = repository.save(toEntity(pending));
+                    repository.flush();
+                    eventPublisher.publishEvent(new OrdersPlacedEvent(List.of(saved)));
+                    committing.set(true);
+                    return saved;
+                });
+                complete(pending, order.getId());
+            }
+            catch (Throwable orderError) {
+                logger.error("Order write failed, ticket {} marked as failed", pending.ticketId, orderError);
+                fail(pending, committing.get());
+            }
+        }
+    }
+
+    private void complete(PendingOrder pending, Long orderId) {
+        settle(pending, new OrderTicketDTO(pending.ticketId, OrderTicketDTO.Status.COMPLETED, orderId, null));
+    }
+
+    // once commit has begun the order may be saved, so its stock stays taken
+    private void fail(PendingOrder pending, boolean outcomeUnknown) {
+        if (!outcomeUnknown) {
+            inventoryService.release(pending.quantities);
+        }
+        settle(pending, new OrderTicketDTO(pending.ticketId, OrderTicketDTO.Status.FAILED, null,
+                outcomeUnknown ? "Falha ao confirmar pedido, consulte seus pedidos" : "Falha ao gravar pedido"));
+    }
+
+    // cached before it leaves the pending map, so a concurrent lookup always finds one of them
+    private void settle(PendingOrder pending, OrderTicketDTO state) {
+        tickets.put(pending.ticketId, new Ticket(pending.clientId, state));
+        pendingTickets.remove(pending.ticketId);
+    }
+
+    private Order toEntity(PendingOrder pending) {
+        Order order = new Order();
+        order.setMoment(pending.moment);
+        order.setStatus(OrderStatus.WAITING_PAYMENT);
+        order.setClient(userRepository.getReferenceById(pending.clientId));
+        for (Map.Entry<Long, Integer> line : pending.quantities.entrySet()) {
+            Product product = productRepository.getReferenceById(line.getKey());
+            order.addItem(new OrderItem(order, product, line.getValue(), pending.prices.get(line.getKey())));
+        }
+        return order;
+    }
+
+    private static class PendingOrder {
+
+        private final String ticketId;
+        private final Long clientId;
+        private final Instant moment;
+        private final Map<Long, Integer> quantities;
+        private final Map<Long, Double> prices;
+
+        PendingOrder(String ticketId, Long clientId, Instant moment, Map<Long, Integer> quantities,
+                     Map<Long, Double> prices) {
+            this.ticketId = ticketId;
+            this.clientId = clientId;
+            this.moment = moment;
+            this.quantities = quantities;
+            this.prices = prices;
+        }
+    }
+
+    private static class Ticket {
+
+        private final Long clientId;
+        private final OrderTicketDTO state;
+
+        Ticket(Long clientId, OrderTicketDTO state) {
+            this.clientId = clientId;
+            this.state = state;
+        }
+    }
+}
@@ -1,49 +1,113 @@
 package com.devsuperior.dscommerce.services;
 
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.OrderDTO;
 import com.devsuperior.dscommerce.dto.OrderItemDTO;
+import com.devsuperior.dscommerce.dto.OrderSummaryDTO;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.OrderStatus;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.entities.User;
-import com.devsuperior.dscommerce.repositories.OrderItemRepository;
+import com.devsuperior.dscommerce.events.OrdersPlacedEvent;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.util.CursorUtil;
 
 @Service
 public class OrderService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final Set<String> SEARCH_SORTABLE_PROPERTIES = Set.of("id", "moment", "status");
+
     @Autowired
     private OrderRepository repository;
     
     @Autowired
     private ProductRepository productRepository;
     
-    @Autowired
-    private OrderItemRepository orderItemRepository;
-    
     @Autowired
     private UserService userService;
     
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional(readOnly = true)
     public OrderDTO findById(Long id) {
-        Order order = repository.findById(id).orElseThrow(
+        // client, payment, items and their products in one statement; OrderDTO touches all of them
+        Order order = repository.searchByIdWithItems(id).orElseThrow(
                 () -> new ResourceNotFoundException("Recurso não encontrado"));
         authService.validateSelfOrAdmin(order.getClient().getId());
         return new OrderDTO(order);
     }
 
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryDTO> search(OrderStatus status, Instant from, Instant to, Long clientId,
+                                        Pageable pageable) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("Data inicial deve ser anterior à data final");
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SEARCH_SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new BadRequestException("Ordenação aceita apenas id, moment ou status");
+            }
+        }
+        return repository.searchSummaries(status, from, to, clientId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> findMyOrders(String after, int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new BadRequestException("Tamanho de página deve estar entre 1 e " + MAX_HISTORY_PAGE_SIZE);
+        }
+        Long clientId = userService.authenticated().getId();
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<OrderSummaryDTO> result;
+        if (after.isEmpty()) {
+            result = repository.searchSummariesByClient(clientId, limit);
+        }
+        else {
+            String[] cursor = CursorUtil.decode(after, 2);
+            result = repository.searchSummariesByClientBefore(clientId, parseCursorMoment(cursor[0]),
+                    parseCursorId(cursor[1]), limit);
+        }
+
+        String nextCursor = null;
+        if (result.size() > size) {
+            result = result.subList(0, size);
+            OrderSummaryDTO last = result.get(size - 1);
+            nextCursor = CursorUtil.encode(last.getMoment().toString(), last.getId().toString());
+        }
+        return new CursorPageDTO<>(result, size, nextCursor);
+    }
+
     @Transactional
 	public OrderDTO insert(OrderDTO dto) {
 		
@@ -55,15 +119,57 @@ public class OrderService {
     	User user = userService.authenticated();
     	order.setClient(user);
     	
-    	for (OrderItemDTO itemDto : dto.getItems()) {
-    		Product product = productRepository.getReferenceById(itemDto.getProductId());
-    		OrderItem item = new OrderItem(order, product, itemDto.getQuantity(), product.getPrice());
-    		order.getItems().add(item);
+    	Map<Long, Integer> quantities = mergeLines(dto);
+    	Map<Long, Product> products = loadProducts(quantities.keySet());
+    	inventoryService.reserve(quantities);
+    	
+    	for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+    		Product product = products.get(line.getKey());
+    		OrderItem item = new OrderItem(order, product, line.getValue(), product.getPrice());
+    		order.addItem(item);
     	}
     	
+    	// items cascade from the order and go out as one JDBC batch
     	repository.save(order);
-    	orderItemRepository.saveAll(order.getItems());
+    	eventPublisher.publishEvent(new OrdersPlacedEvent(List.of(order)));
     	
     	return new OrderDTO(order);
 	}
+
+    // repeated lines for the same product become one item, since items are keyed by (order, product)
+    Map<Long, Integer> mergeLines(OrderDTO dto) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemDTO itemDto : dto.getItems()) {
+            quantities.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    Map<Long, Product> loadProducts(Collection<Long> ids) {
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Long> missing = ids.stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Produto não encontrado: " + missing);
+        }
+        return products;
+    }
+
+    private static Instant parseCursorMoment(String value) {
+        try {
+            return Instant.parse(value);
+        }
+        catch (DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    private static Long parseCursorId(String value) {
+        try {
+            return Long.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
 }
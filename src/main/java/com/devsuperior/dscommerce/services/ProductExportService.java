@@ -0,0 +1,143 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the whole catalog to a stream from a single forward-only JDBC cursor. Rows are
+ * turned into output as they are read, so memory use does not grow with the catalog.
+ */
+@Service
+public class ProductExportService {
+
+    private static final String SELECT_CATALOG =
+            "SELECT p.id, p.name, p.description, p.price, p.img_url, c.id AS category_id, c.name AS category_name " +
+            "FROM tb_product p " +
+            "LEFT JOIN tb_product_category pc ON pc.product_id = p.id " +
+            "LEFT JOIN tb_category c ON c.id = pc.category_id " +
+            "ORDER BY p.id, c.id";
+    private static final String CSV_HEADER = "id,name,description,price,imgUrl,categories";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ProductExportService(DataSource dataSource, @Value("${catalog.export.fetch-size}") int fetchSize) {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * One product per line, in the same JSON shape as {@code GET /products/{id}}.
+     */
+    public void exportNdjson(OutputStream output) throws IOException {
+        export(output, null, product -> objectMapper.writeValueAsString(product));
+    }
+
+    /**
+     * Same columns accepted by the CSV import, category ids separated by {@code |}.
+     */
+    public void exportCsv(OutputStream output) throws IOException {
+        export(output, CSV_HEADER, ProductExportService::toCsv);
+    }
+
+    private void export(OutputStream output, String header, LineFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (header != null) {
+            writer.write(header);
+            writer.write('\n');
+        }
+        ProductCollector collector = new ProductCollector(writer, format);
+        try {
+            jdbcTemplate.query(SELECT_CATALOG, collector);
+            collector.emit();
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String toCsv(ProductDTO product) {
+        return product.getId() + "," + csvField(product.getName()) + "," + csvField(product.getDescription()) + ","
+                + product.getPrice() + "," + csvField(product.getImgUrl()) + ","
+                + product.getCategories().stream().map(c -> c.getId().toString()).collect(Collectors.joining("|"));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    @FunctionalInterface
+    private interface LineFormat {
+        String format(ProductDTO product) throws IOException;
+    }
+
+    // rows arrive ordered by product id, one per category, and are folded back into one product
+    private static class ProductCollector implements RowCallbackHandler {
+
+        private final Writer writer;
+        private final LineFormat format;
+        private ProductDTO current;
+
+        ProductCollector(Writer writer, LineFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                emit();
+                current = new ProductDTO(id, rs.getString("name"), rs.getString("description"),
+                        rs.getDouble("price"), rs.getString("img_url"));
+            }
+            long categoryId = rs.getLong("category_id");
+            if (!rs.wasNull()) {
+                current.getCategories().add(new CategoryDTO(categoryId, rs.getString("category_name")));
+            }
+        }
+
+        void emit() {
+            if (current == null) {
+                return;
+            }
+            try {
+                writer.write(format.format(current));
+                writer.write('\n');
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+        }
+    }
+}
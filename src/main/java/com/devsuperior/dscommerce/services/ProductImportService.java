@@ -0,0 +1,325 @@
+package com.devsuperior.dscommerce.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ImportErrorDTO;
+import com.devsuperior.dscommerce.dto.ImportResultDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.events.ProductsImportedEvent;
+import com.devsuperior.dscommerce.repositories.CategoryRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Streams product feeds into the catalog. Rows are parsed and validated one at a time and
+ * written in chunks with JDBC batch inserts, each chunk in its own transaction, so a bad row
+ * is reported without aborting the rest of the feed.
+ */
+@Service
+public class ProductImportService {
+
+    private static final String NEXT_PRODUCT_ID_BLOCK = "SELECT NEXT VALUE FOR seq_product";
+    // allocationSize of seq_product: with the pooled-lo optimizer each value v reserves v .. v + 49
+    private static final int PRODUCT_ID_BLOCK = 50;
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO tb_product (id, name, description, price, img_url) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_CATEGORY =
+            "INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)";
+    private static final List<String> CSV_REQUIRED_COLUMNS = List.of("name", "description", "price", "categories");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog.import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${catalog.import.max-errors}")
+    private int maxErrors;
+
+    /**
+     * One product per line, in the same JSON shape accepted by {@code POST /products}.
+     */
+    public ImportResultDTO importNdjson(InputStream input) {
+        Session session = new Session();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                session.received++;
+                try {
+                    session.accept(lineNumber, objectMapper.readValue(line, ProductDTO.class));
+                }
+                catch (JsonProcessingException e) {
+                    session.reject(lineNumber, "JSON inválido: " + e.getOriginalMessage());
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new BadRequestException("Falha ao ler o arquivo de importação");
+        }
+        finally {
+            session.finish();
+        }
+        return session.result();
+    }
+
+    /**
+     * Header row naming the columns ({@code name,description,price,imgUrl,categories}, any order),
+     * category ids separated by {@code |}.
+     */
+    public ImportResultDTO importCsv(InputStream input) {
+        Session session = new Session();
+        try {
+            CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+            Map<String, Integer> columns = readHeader(reader.readRecord());
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                session.received++;
+                long lineNumber = reader.getRecordLine();
+                if (record.size() != columns.size()) {
+                    session.reject(lineNumber, "Número de colunas inválido");
+                    continue;
+                }
+                ProductDTO dto;
+                try {
+                    dto = toDto(record, columns);
+                }
+                catch (NumberFormatException e) {
+                    session.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+                session.accept(lineNumber, dto);
+            }
+        }
+        catch (IOException e) {
+            throw new BadRequestException("Falha ao ler o arquivo de importação");
+        }
+        finally {
+            session.finish();
+        }
+        return session.result();
+    }
+
+    private Map<String, Integer> readHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+        }
+        if (!columns.keySet().containsAll(CSV_REQUIRED_COLUMNS)) {
+            throw new BadRequestException("Cabeçalho CSV deve conter as colunas " + String.join(", ", CSV_REQUIRED_COLUMNS));
+        }
+        return columns;
+    }
+
+    private ProductDTO toDto(List<String> record, Map<String, Integer> columns) {
+        String price = record.get(columns.get("price")).trim();
+        Integer imgUrlColumn = columns.get("imgUrl");
+        String imgUrl = (imgUrlColumn == null) ? "" : record.get(imgUrlColumn).trim();
+        ProductDTO dto;
+        try {
+            dto = new ProductDTO(null, record.get(columns.get("name")), record.get(columns.get("description")),
+                    price.isEmpty() ? null : Double.valueOf(price), imgUrl.isEmpty() ? null : imgUrl);
+        }
+        catch (NumberFormatException e) {
+            throw new NumberFormatException("price: Preço inválido: " + price);
+        }
+        for (String categoryId : record.get(columns.get("categories")).split("\\|")) {
+            if (categoryId.isBlank()) {
+                continue;
+            }
+            try {
+                dto.getCategories().add(new CategoryDTO(Long.valueOf(categoryId.trim()), null));
+            }
+            catch (NumberFormatException e) {
+                throw new NumberFormatException("categories: Categoria inválida: " + categoryId.trim());
+            }
+        }
+        return dto;
+    }
+
+    private void write(List<Row> rows) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            long[] ids = new long[rows.size()];
+            try (PreparedStatement ps = con.prepareStatement(NEXT_PRODUCT_ID_BLOCK)) {
+                long base = 0;
+                for (int i = 0; i < ids.length; i++) {
+                    if (i % PRODUCT_ID_BLOCK == 0) {
+                        try (ResultSet rs = ps.executeQuery()) {
+                            rs.next();
+                            base = rs.getLong(1);
+                        }
+                    }
+                    ids[i] = base + i % PRODUCT_ID_BLOCK;
+                }
+            }
+            try (PreparedStatement ps = con.prepareStatement(INSERT_PRODUCT)) {
+                for (int i = 0; i < ids.length; i++) {
+                    ProductDTO product = rows.get(i).product;
+                    ps.setLong(1, ids[i]);
+                    ps.setString(2, product.getName());
+                    ps.setString(3, product.getDescription());
+                    ps.setDouble(4, product.getPrice());
+                    ps.setString(5, product.getImgUrl());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = con.prepareStatement(INSERT_PRODUCT_CATEGORY)) {
+                for (int i = 0; i < rows.size(); i++) {
+                    for (Long categoryId : rows.get(i).categoryIds) {
+                        ps.setLong(1, ids[i]);
+                        ps.setLong(2, categoryId);
+                        ps.addBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    private static class Row {
+
+        private final long line;
+        private final ProductDTO product;
+        private final Set<Long> categoryIds;
+
+        Row(long line, ProductDTO product, Set<Long> categoryIds) {
+            this.line = line;
+            this.product = product;
+            this.categoryIds = categoryIds;
+        }
+    }
+
+    private class Session {
+
+        private final Set<Long> categoryIds = new HashSet<>(categoryRepository.findAllIds());
+        private final List<Row> chunk = new ArrayList<>(chunkSize);
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        void accept(long line, ProductDTO dto) {
+            if (dto == null) {
+                reject(line, "Linha vazia");
+                return;
+            }
+            Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            Set<Long> rowCategories = new LinkedHashSet<>();
+            for (CategoryDTO category : dto.getCategories()) {
+                if (category == null || !categoryIds.contains(category.getId())) {
+                    reject(line, "categories: Categoria inexistente: " + ((category == null) ? null : category.getId()));
+                    return;
+                }
+                rowCategories.add(category.getId());
+            }
+            chunk.add(new Row(line, dto, rowCategories));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportErrorDTO(line, message));
+            }
+        }
+
+        // a failed batch is retried row by row so only the offending rows are rejected
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(chunk));
+                imported += chunk.size();
+            }
+            catch (DataAccessException e) {
+                for (Row row : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> write(List.of(row)));
+                        imported++;
+                    }
+                    catch (DataAccessException rowError) {
+                        reject(row.line, "Falha ao gravar: " + rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+        }
+
+        void finish() {
+            flush();
+            if (imported > 0) {
+                eventPublisher.publishEvent(new ProductsImportedEvent(imported));
+            }
+        }
+
+        ImportResultDTO result() {
+            return new ImportResultDTO(received, imported, failed, errors);
+        }
+    }
+}
@@ -1,41 +1,262 @@
 package com.devsuperior.dscommerce.services;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscommerce.cache.ProductCountCache;
+import com.devsuperior.dscommerce.cache.ProductDetailCache;
+import com.devsuperior.dscommerce.dto.CacheStatsDTO;
 import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.CategoryFacetDTO;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductSuggestionDTO;
+import com.devsuperior.dscommerce.dto.SliceDTO;
 import com.devsuperior.dscommerce.entities.Category;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.search.ProductCategoryIndex;
+import com.devsuperior.dscommerce.search.ProductFilter;
+import com.devsuperior.dscommerce.search.ProductFuzzyIndex;
+import com.devsuperior.dscommerce.search.ProductPriceIndex;
+import com.devsuperior.dscommerce.search.ProductSearchIndex;
+import com.devsuperior.dscommerce.search.ProductSuggestIndex;
+import com.devsuperior.dscommerce.search.ProductTextIndex;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.util.CursorUtil;
 
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
 public class ProductService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+
     @Autowired
     private ProductRepository repository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductCategoryIndex categoryIndex;
+
+    @Autowired
+    private ProductPriceIndex priceIndex;
+
+    @Autowired
+    private ProductSuggestIndex suggestIndex;
+
+    @Autowired
+    private ProductFuzzyIndex fuzzyIndex;
+
+    @Autowired
+    private ProductTextIndex textIndex;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductCountCache countCache;
+
+    @Autowired
+    private ProductDetailCache detailCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public ProductDTO findById(Long id) {
-        Product product = repository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Recurso não encontrado"));
-        return new ProductDTO(product);
+        return detailCache.get(id, this::loadProduct);
+    }
+
+    public CacheStatsDTO detailCacheStats() {
+        return detailCache.stats();
     }
 
     @Transactional(readOnly = true)
     public Page<ProductMinDTO> findAll(String name, Pageable pageable) {
-        Page<Product> result = repository.searchByName(name, pageable);
-        return result.map(x -> new ProductMinDTO(x));
+        return findAll(name, List.of(), "any", null, null, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductMinDTO> findAll(String name, List<Long> categoryIds, String match,
+                                       Double minPrice, Double maxPrice, Pageable pageable) {
+        List<Long> categories = categoryIds.stream().distinct().toList();
+        boolean matchAll = parseMatch(match);
+        boolean priceBounded = parsePriceRange(minPrice, maxPrice);
+        if (searchIndex.canServe(pageable) && canFilter(categories, priceBounded)) {
+            ProductFilter filter = filter(categories, matchAll, minPrice, maxPrice);
+            int[] order = priceIndex.canOrder(pageable) ? priceIndex.ascendingIds() : null;
+            return searchIndex.search(name, filter, pageable, order);
+        }
+        if (!categories.isEmpty()) {
+            return repository.searchMinByNameAndCategories(name, categories, matchAll ? categories.size() : 1,
+                    minPrice, maxPrice, pageable);
+        }
+        if (priceBounded) {
+            return repository.searchMinByNameAndPrice(name, minPrice, maxPrice, pageable);
+        }
+        return repository.searchMinByName(name, pageable);
+    }
+
+    /**
+     * Product counts per category among the products matching the name, category and price filters.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryFacetDTO> findFacets(String name, List<Long> categoryIds, String match,
+                                             Double minPrice, Double maxPrice) {
+        List<Long> categories = categoryIds.stream().distinct().toList();
+        boolean matchAll = parseMatch(match);
+        boolean priceBounded = parsePriceRange(minPrice, maxPrice);
+        Map<Long, Long> counts;
+        if (searchIndex.isReady() && categoryIndex.isReady() && canFilter(categories, priceBounded)) {
+            ProductFilter filter = filter(categories, matchAll, minPrice, maxPrice);
+            counts = categoryIndex.countByCategory(searchIndex.matchingIds(name, filter));
+        }
+        else {
+            List<CategoryFacetDTO> rows = categories.isEmpty()
+                    ? repository.countFacetsByName(name, minPrice, maxPrice)
+                    : repository.countFacetsByNameAndCategories(name, categories, matchAll ? categories.size() : 1,
+                            minPrice, maxPrice);
+            counts = rows.stream().collect(Collectors.toMap(CategoryFacetDTO::getId, CategoryFacetDTO::getCount));
+        }
+        return categoryService.findAll().stream()
+                .map(x -> new CategoryFacetDTO(x.getId(), x.getName(), counts.getOrDefault(x.getId(), 0L)))
+                .toList();
+    }
+
+    /**
+     * Accent- and typo-tolerant name search ranked by similarity. Falls back to the plain substring
+     * match while the fuzzy index is not loaded.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductMinDTO> findAllFuzzy(String name, Pageable pageable) {
+        if (fuzzyIndex.isReady()) {
+            return fuzzyIndex.search(name, pageable);
+        }
+        return repository.searchMinByName(name, pageable);
+    }
+
+    /**
+     * Full-text search over name and description ranked by BM25. Falls back to the plain name
+     * match while the text index is not loaded.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductMinDTO> search(String query, Pageable pageable) {
+        if (textIndex.isReady()) {
+            return textIndex.search(query, pageable);
+        }
+        return repository.searchMinByName(query, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > ProductSuggestIndex.TOP_K) {
+            throw new BadRequestException("Limite de sugestões deve estar entre 1 e " + ProductSuggestIndex.TOP_K);
+        }
+        if (suggestIndex.isReady()) {
+            return suggestIndex.suggest(prefix, limit);
+        }
+        if (prefix.isBlank()) {
+            return List.of();
+        }
+        return repository.searchSuggestions(prefix.trim(), PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public SliceDTO<ProductMinDTO> findAllSlice(String name, Pageable pageable, boolean approximateTotal) {
+        return findAllSlice(name, List.of(), "any", null, null, pageable, approximateTotal);
+    }
+
+    /**
+     * Listing without a count query. A category- or price-filtered slice served by the indexes, or one
+     * that asks for a total, is read through {@link #findAll}, whose exact total then stands in for the
+     * approximate one; otherwise the database reads one row past the page instead of counting.
+     */
+    @Transactional(readOnly = true)
+    public SliceDTO<ProductMinDTO> findAllSlice(String name, List<Long> categoryIds, String match,
+                                                Double minPrice, Double maxPrice,
+                                                Pageable pageable, boolean approximateTotal) {
+        if (!categoryIds.isEmpty() || minPrice != null || maxPrice != null) {
+            List<Long> categories = categoryIds.stream().distinct().toList();
+            boolean matchAll = parseMatch(match);
+            boolean priceBounded = parsePriceRange(minPrice, maxPrice);
+            if (approximateTotal || (searchIndex.canServe(pageable) && canFilter(categories, priceBounded))) {
+                Page<ProductMinDTO> page = findAll(name, categories, match, minPrice, maxPrice, pageable);
+                return new SliceDTO<>(new SliceImpl<>(page.getContent(), pageable, page.hasNext()),
+                        approximateTotal ? page.getTotalElements() : null);
+            }
+            Slice<ProductMinDTO> slice = categories.isEmpty()
+                    ? repository.searchSliceByNameAndPrice(name, minPrice, maxPrice, pageable)
+                    : repository.searchSliceByNameAndCategories(name, categories, matchAll ? categories.size() : 1,
+                            minPrice, maxPrice, pageable);
+            return new SliceDTO<>(slice, null);
+        }
+        Slice<ProductMinDTO> slice;
+        if (searchIndex.canServe(pageable)) {
+            Page<ProductMinDTO> page = searchIndex.search(name, pageable);
+            slice = new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+        }
+        else {
+            slice = repository.searchSliceByName(name, pageable);
+        }
+        Long total = approximateTotal ? countCache.get(name, this::countByName) : null;
+        return new SliceDTO<>(slice, total);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductMinDTO> findAllAfter(String name, String after, String sort, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Tamanho de página deve estar entre 1 e " + MAX_CURSOR_PAGE_SIZE);
+        }
+        String property = after.isEmpty() ? cursorSortProperty(sort) : null;
+        String lastValue = null;
+        Long lastId = 0L;
+        if (property == null) {
+            String[] cursor = CursorUtil.decode(after, 3);
+            property = cursor[0];
+            lastValue = cursor[1];
+            lastId = parseCursorId(cursor[2]);
+        }
+
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ProductMinDTO> result = switch (property) {
+            case "id" -> repository.searchByNameAfterId(name, lastId, limit);
+            case "name" -> repository.searchByNameAfterName(name, (lastValue == null) ? "" : lastValue, lastId, limit);
+            case "price" -> repository.searchByNameAfterPrice(name,
+                    (lastValue == null) ? -Double.MAX_VALUE : parseCursorPrice(lastValue), lastId, limit);
+            default -> throw new BadRequestException("Cursor inválido");
+        };
+
+        String nextCursor = null;
+        if (result.size() > size) {
+            result = result.subList(0, size);
+            ProductMinDTO last = result.get(size - 1);
+            String lastKey = switch (property) {
+                case "name" -> last.getName();
+                case "price" -> last.getPrice().toString();
+                default -> last.getId().toString();
+            };
+            nextCursor = CursorUtil.encode(property, lastKey, last.getId().toString());
+        }
+        return new CursorPageDTO<>(result, size, nextCursor);
     }
 
     @Transactional
@@ -43,7 +264,9 @@ public class ProductService {
         Product entity = new Product();
         copyDtoToEntity(dto, entity);
         entity = repository.save(entity);
-        return new ProductDTO(entity);
+        ProductDTO result = new ProductDTO(entity);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+        return result;
     }
 
     @Transactional
@@ -52,7 +275,9 @@ public class ProductService {
             Product entity = repository.getReferenceById(id);
             copyDtoToEntity(dto, entity);
             entity = repository.save(entity);
-            return new ProductDTO(entity);
+            ProductDTO result = new ProductDTO(entity);
+            eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+            return result;
         }
         catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Recurso não encontrado");
@@ -65,13 +290,82 @@ public class ProductService {
     		throw new ResourceNotFoundException("Recurso não encontrado");
     	}
     	try {
-            repository.deleteById(id);    		
+            repository.deleteById(id);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     	}
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Falha de integridade referencial");
         }
     }
 
+    private ProductDTO loadProduct(Long id) {
+        Product product = repository.searchByIdWithCategories(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado"));
+        return new ProductDTO(product);
+    }
+
+    private long countByName(String name) {
+        return searchIndex.isReady() ? searchIndex.count(name) : repository.countByName(name);
+    }
+
+    private boolean canFilter(List<Long> categories, boolean priceBounded) {
+        return (categories.isEmpty() || categoryIndex.isReady()) && (!priceBounded || priceIndex.isReady());
+    }
+
+    private ProductFilter filter(List<Long> categories, boolean matchAll, Double minPrice, Double maxPrice) {
+        ProductFilter filter = categories.isEmpty() ? null : categoryIndex.filter(categories, matchAll);
+        if (minPrice != null || maxPrice != null) {
+            ProductFilter range = priceIndex.range(minPrice, maxPrice);
+            filter = (filter == null) ? range : filter.and(range);
+        }
+        return filter;
+    }
+
+    private static boolean parsePriceRange(Double minPrice, Double maxPrice) {
+        if ((minPrice != null && !Double.isFinite(minPrice)) || (maxPrice != null && !Double.isFinite(maxPrice))) {
+            throw new BadRequestException("Faixa de preço inválida");
+        }
+        return minPrice != null || maxPrice != null;
+    }
+
+    private static boolean parseMatch(String match) {
+        if (match.equalsIgnoreCase("all")) {
+            return true;
+        }
+        if (match.equalsIgnoreCase("any")) {
+            return false;
+        }
+        throw new BadRequestException("Parâmetro match deve ser any ou all");
+    }
+
+    private static String cursorSortProperty(String sort) {
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        boolean ascending = parts.length == 1 || parts[1].trim().equalsIgnoreCase("asc");
+        if (!ascending || !(property.equals("id") || property.equals("name") || property.equals("price"))) {
+            throw new BadRequestException("Ordenação por cursor aceita apenas id, name ou price ascendentes");
+        }
+        return property;
+    }
+
+    private static Long parseCursorId(String value) {
+        try {
+            return Long.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    private static Double parseCursorPrice(String value) {
+        try {
+            return Double.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
     private void copyDtoToEntity(ProductDTO dto, Product entity) {
         entity.setName(dto.getName());
         entity.setDescription(dto.getDescription());
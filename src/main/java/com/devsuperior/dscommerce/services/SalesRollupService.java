@@ -0,0 +1,407 @@
+package com.devsuperior.dscommerce.services;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.SalesDayDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.events.OrdersPlacedEvent;
+import com.devsuperior.dscommerce.repositories.CategorySalesDayRepository;
+import com.devsuperior.dscommerce.repositories.ProductSalesDayRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+
+/**
+ * Units sold and revenue per product and per category for each UTC day, kept in
+ * tb_product_sales_day and tb_category_sales_day so reports never scan order items.
+ * A product in several categories counts in full towards each of them.
+ * <p>
+ * Placed orders are added after their transaction commits, in a short transaction of
+ * their own, so the hot rollup rows are never locked for the length of an order insert.
+ * An update lost to a failure in between is repaired by rebuilding its days with
+ * {@link #rebuild(LocalDate, LocalDate)}; the scheduled-style {@link #rebuild()} only
+ * reaches a day once it is two days old.
+ * <p>
+ * A ranged rebuild holds the write side of a lock that every incremental update takes the
+ * read side of, and orders are tracked from before their commit until their update is
+ * applied. An order the rebuild already read while its update was still pending is
+ * skipped by that update, so each order counts exactly once.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final int MAX_RECORD_ATTEMPTS = 3;
+    private static final int REBUILD_DAYS_PER_TASK = 31;
+
+    private static final String SELECT_PRODUCT_CATEGORIES =
+            "SELECT product_id, category_id FROM tb_product_category";
+    private static final String SELECT_PRODUCT_CATEGORIES_IN =
+            SELECT_PRODUCT_CATEGORIES + " WHERE product_id IN (:ids)";
+    private static final String SELECT_FIRST_ORDER_MOMENT = "SELECT MIN(moment) FROM tb_order";
+    private static final String SELECT_ORDER_ITEMS =
+            "SELECT o.id, o.moment, i.product_id, i.quantity, i.price " +
+            "FROM tb_order o JOIN tb_order_item i ON i.order_id = o.id " +
+            "WHERE o.moment >= ? AND o.moment < ?";
+    private static final String MERGE_PRODUCT_DAY = merge("tb_product_sales_day", "product_id");
+    private static final String MERGE_CATEGORY_DAY = merge("tb_category_sales_day", "category_id");
+    private static final String DELETE_PRODUCT_DAYS =
+            "DELETE FROM tb_product_sales_day WHERE sale_date >= ? AND sale_date < ?";
+    private static final String DELETE_CATEGORY_DAYS =
+            "DELETE FROM tb_category_sales_day WHERE sale_date >= ? AND sale_date < ?";
+    private static final String INSERT_PRODUCT_DAY =
+            "INSERT INTO tb_product_sales_day (product_id, sale_date, units, revenue) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_CATEGORY_DAY =
+            "INSERT INTO tb_category_sales_day (category_id, sale_date, units, revenue) VALUES (?, ?, ?, ?)";
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private ProductSalesDayRepository productSalesDayRepository;
+
+    @Autowired
+    private CategorySalesDayRepository categorySalesDayRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildParallelism;
+
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    // committed or committing orders whose incremental update has not been applied yet
+    private final Set<Long> pendingOrders = ConcurrentHashMap.newKeySet();
+    // pending orders a rebuild has already counted, for their update to skip
+    private final Set<Long> rebuiltOrders = ConcurrentHashMap.newKeySet();
+
+    public SalesRollupService(PlatformTransactionManager transactionManager,
+                              @Value("${reports.rebuild-parallelism}") int rebuildParallelism) {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildParallelism = rebuildParallelism;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<SalesDayDTO> findProductSales(Long productId, LocalDate from, LocalDate to, Pageable pageable) {
+        validateRange(from, to);
+        // rows always come by day then id; a client sort would not match the indexes
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (productId == null) {
+            return productSalesDayRepository.searchByDate(from, to, page);
+        }
+        return productSalesDayRepository.searchByProductAndDate(productId, from, to, page);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<SalesDayDTO> findCategorySales(Long categoryId, LocalDate from, LocalDate to, Pageable pageable) {
+        validateRange(from, to);
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (categoryId == null) {
+            return categorySalesDayRepository.searchByDate(from, to, page);
+        }
+        return categorySalesDayRepository.searchByCategoryAndDate(categoryId, from, to, page);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrdersCommitting(OrdersPlacedEvent event) {
+        for (Order order : event.getOrders()) {
+            pendingOrders.add(order.getId());
+        }
+    }
+
+    // normally already done by onOrdersPlaced; covers rollbacks and a failed update
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onOrdersCompleted(OrdersPlacedEvent event) {
+        for (Order order : event.getOrders()) {
+            pendingOrders.remove(order.getId());
+            rebuiltOrders.remove(order.getId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrdersPlaced(OrdersPlacedEvent event) {
+        rebuildLock.readLock().lock();
+        try {
+            record(event.getOrders());
+        }
+        finally {
+            for (Order order : event.getOrders()) {
+                pendingOrders.remove(order.getId());
+            }
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void record(List<Order> orders) {
+        Map<SalesKey, Totals> products = new TreeMap<>();
+        Set<LocalDate> days = new TreeSet<>();
+        for (Order order : orders) {
+            if (rebuiltOrders.remove(order.getId())) {
+                continue;
+            }
+            LocalDate day = LocalDate.ofInstant(order.getMoment(), ZoneOffset.UTC);
+            days.add(day);
+            for (OrderItem item : order.getItems()) {
+                products.computeIfAbsent(new SalesKey(item.getProduct().getId(), day), key -> new Totals())
+                        .add(item.getQuantity(), item.getPrice());
+            }
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+        // the orders are committed; a failed rollup must not turn their response into an error
+        for (int attempt = 1; attempt <= MAX_RECORD_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> merge(products));
+                return;
+            }
+            catch (DuplicateKeyException e) {
+                // another transaction created the same day row first; the retry merges into it
+            }
+            catch (DataAccessException e) {
+                logger.warn("Sales rollup update failed for days {}, rebuild that range to repair", days, e);
+                return;
+            }
+        }
+        logger.warn("Sales rollup update kept conflicting for days {}, rebuild that range to repair", days);
+    }
+
+    /**
+     * Recomputes every day before yesterday (UTC), from the first order on. Yesterday and
+     * today are left to the incremental updates, since orders placed around midnight may
+     * still be on their way in; with no day in common, the two need not wait on each other.
+     */
+    public void rebuild() {
+        LocalDate end = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        Timestamp first = jdbcTemplate.queryForObject(SELECT_FIRST_ORDER_MOMENT, Timestamp.class);
+        LocalDate start = (first == null) ? end : LocalDate.ofInstant(first.toInstant(), ZoneOffset.UTC);
+        // rows before the first order can only be stale, so they go too
+        replace(LocalDate.of(1970, 1, 1), start.isBefore(end) ? start : end, end);
+    }
+
+    /**
+     * Recomputes the days from {@code from} (inclusive) to {@code to} (exclusive), today included,
+     * to repair days an incremental update missed. Incremental updates wait while it runs.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        rebuildLock.writeLock().lock();
+        try {
+            replace(from, from, to);
+        }
+        finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregates the orders from {@code start} to {@code end}, splitting them into month-sized
+     * ranges that are read in parallel on a fork/join pool, then replaces every rollup row from
+     * {@code deleteFrom} to {@code end} with the result in one transaction.
+     */
+    private void replace(LocalDate deleteFrom, LocalDate start, LocalDate end) {
+        Rollup rollup = new Rollup();
+        if (start.isBefore(end)) {
+            Map<Long, List<Long>> categories = productCategories(SELECT_PRODUCT_CATEGORIES, Map.of());
+            ForkJoinPool pool = new ForkJoinPool(rebuildParallelism);
+            try {
+                rollup = pool.invoke(new RebuildTask(start, end, categories));
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+
+        Rollup result = rollup;
+        rebuiltOrders.addAll(result.pendingOrders);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_PRODUCT_DAYS, Date.valueOf(deleteFrom), Date.valueOf(end));
+            jdbcTemplate.update(DELETE_CATEGORY_DAYS, Date.valueOf(deleteFrom), Date.valueOf(end));
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_DAY, rows(result.products));
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY_DAY, rows(result.categories));
+        });
+    }
+
+    // keys are merged in sorted order so concurrent updates lock rows in the same sequence
+    private void merge(Map<SalesKey, Totals> products) {
+        Set<Long> productIds = new HashSet<>();
+        for (SalesKey key : products.keySet()) {
+            productIds.add(key.id);
+        }
+        Map<Long, List<Long>> categories = productCategories(SELECT_PRODUCT_CATEGORIES_IN, Map.of("ids", productIds));
+        Map<SalesKey, Totals> categoryTotals = new TreeMap<>();
+        for (Map.Entry<SalesKey, Totals> entry : products.entrySet()) {
+            for (Long categoryId : categories.getOrDefault(entry.getKey().id, List.of())) {
+                categoryTotals.computeIfAbsent(new SalesKey(categoryId, entry.getKey().day), key -> new Totals())
+                        .add(entry.getValue());
+            }
+        }
+        jdbcTemplate.batchUpdate(MERGE_PRODUCT_DAY, rows(products));
+        jdbcTemplate.batchUpdate(MERGE_CATEGORY_DAY, rows(categoryTotals));
+    }
+
+    private Map<Long, List<Long>> productCategories(String sql, Map<String, ?> params) {
+        Map<Long, List<Long>> categories = new HashMap<>();
+        namedJdbcTemplate.query(sql, params, rs -> {
+            categories.computeIfAbsent(rs.getLong("product_id"), id -> new ArrayList<>()).add(rs.getLong("category_id"));
+        });
+        return categories;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Data inicial deve ser anterior à data final");
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDate day) {
+        Instant instant = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        return Timestamp.from(instant);
+    }
+
+    private static List<Object[]> rows(Map<SalesKey, Totals> totals) {
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        for (Map.Entry<SalesKey, Totals> entry : totals.entrySet()) {
+            rows.add(new Object[] {entry.getKey().id, Date.valueOf(entry.getKey().day),
+                    entry.getValue().units, entry.getValue().revenue});
+        }
+        return rows;
+    }
+
+    private static String merge(String table, String idColumn) {
+        return "MERGE INTO " + table + " t " +
+                "USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION))) " +
+                "AS s (" + idColumn + ", sale_date, units, revenue) " +
+                "ON t." + idColumn + " = s." + idColumn + " AND t.sale_date = s.sale_date " +
+                "WHEN MATCHED THEN UPDATE SET units = t.units + s.units, revenue = t.revenue + s.revenue " +
+                "WHEN NOT MATCHED THEN INSERT (" + idColumn + ", sale_date, units, revenue) " +
+                "VALUES (s." + idColumn + ", s.sale_date, s.units, s.revenue)";
+    }
+
+    @SuppressWarnings("serial")
+    private class RebuildTask extends RecursiveTask<Rollup> {
+
+        private final LocalDate start;
+        private final LocalDate end;
+        private final Map<Long, List<Long>> categories;
+
+        RebuildTask(LocalDate start, LocalDate end, Map<Long, List<Long>> categories) {
+            this.start = start;
+            this.end = end;
+            this.categories = categories;
+        }
+
+        @Override
+        protected Rollup compute() {
+            long days = ChronoUnit.DAYS.between(start, end);
+            if (days > REBUILD_DAYS_PER_TASK) {
+                LocalDate middle = start.plusDays(days / 2);
+                RebuildTask left = new RebuildTask(start, middle, categories);
+                left.fork();
+                Rollup right = new RebuildTask(middle, end, categories).compute();
+                // the day ranges do not overlap, so neither do the keys
+                Rollup result = left.join();
+                result.products.putAll(right.products);
+                result.categories.putAll(right.categories);
+                result.pendingOrders.addAll(right.pendingOrders);
+                return result;
+            }
+
+            Rollup rollup = new Rollup();
+            jdbcTemplate.query(SELECT_ORDER_ITEMS, rs -> {
+                long orderId = rs.getLong("id");
+                if (pendingOrders.contains(orderId)) {
+                    rollup.pendingOrders.add(orderId);
+                }
+                LocalDate day = LocalDate.ofInstant(rs.getTimestamp("moment").toInstant(), ZoneOffset.UTC);
+                long productId = rs.getLong("product_id");
+                int quantity = rs.getInt("quantity");
+                double price = rs.getDouble("price");
+                rollup.products.computeIfAbsent(new SalesKey(productId, day), key -> new Totals()).add(quantity, price);
+                for (Long categoryId : categories.getOrDefault(productId, List.of())) {
+                    rollup.categories.computeIfAbsent(new SalesKey(categoryId, day), key -> new Totals())
+                            .add(quantity, price);
+                }
+            }, toTimestamp(start), toTimestamp(end));
+            return rollup;
+        }
+    }
+
+    private static class Rollup {
+
+        private final Map<SalesKey, Totals> products = new TreeMap<>();
+        private final Map<SalesKey, Totals> categories = new TreeMap<>();
+        private final Set<Long> pendingOrders = new HashSet<>();
+    }
+
+    private static class SalesKey implements Comparable<SalesKey> {
+
+        private final Long id;
+        private final LocalDate day;
+
+        SalesKey(Long id, LocalDate day) {
+            this.id = id;
+            this.day = day;
+        }
+
+        @Override
+        public int compareTo(SalesKey other) {
+            int result = id.compareTo(other.id);
+            return result != 0 ? result : day.compareTo(other.day);
+        }
+    }
+
+    private static class Totals {
+
+        private long units;
+        private double revenue;
+
+        void add(int quantity, double price) {
+            units += quantity;
+            revenue += quantity * price;
+        }
+
+        void add(Totals other) {
+            units += other.units;
+            revenue += other.revenue;
+        }
+    }
+}
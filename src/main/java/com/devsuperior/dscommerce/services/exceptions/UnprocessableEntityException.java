@@ -0,0 +1,9 @@
+package com.devsuperior.dscommerce.services.exceptions;
+
+@SuppressWarnings("serial")
+public class UnprocessableEntityException extends RuntimeException {
+
+    public UnprocessableEntityException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,93 @@
+package com.devsuperior.dscommerce.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 record reader: comma separated, double-quoted fields may contain
+ * commas, line breaks and escaped quotes ({@code ""}). Reads one record at a time.
+ */
+public class CsvReader {
+
+	private static final int NONE = -2;
+
+	private final Reader reader;
+	private long line = 1;
+	private long recordLine;
+	private int pending = NONE;
+
+	public CsvReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Next record, or {@code null} at end of input.
+	 */
+	public List<String> readRecord() throws IOException {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		boolean started = false;
+		recordLine = line;
+		int c;
+		while ((c = read()) != -1) {
+			started = true;
+			if (quoted) {
+				if (c == '"') {
+					int next = read();
+					if (next == '"') {
+						field.append('"');
+					}
+					else {
+						quoted = false;
+						pending = next;
+					}
+				}
+				else {
+					if (c == '\n') {
+						line++;
+					}
+					field.append((char) c);
+				}
+			}
+			else if (c == '"' && field.length() == 0) {
+				quoted = true;
+			}
+			else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			}
+			else if (c == '\n') {
+				line++;
+				fields.add(field.toString());
+				return fields;
+			}
+			else if (c != '\r') {
+				field.append((char) c);
+			}
+		}
+		if (!started) {
+			return null;
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	/**
+	 * Line on which the last record returned by {@link #readRecord()} started.
+	 */
+	public long getRecordLine() {
+		return recordLine;
+	}
+
+	private int read() throws IOException {
+		if (pending != NONE) {
+			int c = pending;
+			pending = NONE;
+			return c;
+		}
+		return reader.read();
+	}
+}
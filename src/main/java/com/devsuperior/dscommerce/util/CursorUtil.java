@@ -0,0 +1,36 @@
+package com.devsuperior.dscommerce.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+
+/**
+ * Encodes keyset positions (sort key values plus id) as opaque URL-safe tokens.
+ */
+public final class CursorUtil {
+
+	private static final String SEPARATOR = "\u0000";
+
+	private CursorUtil() {
+	}
+
+	public static String encode(String... parts) {
+		byte[] bytes = String.join(SEPARATOR, parts).getBytes(StandardCharsets.UTF_8);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	public static String[] decode(String token, int expectedParts) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split(SEPARATOR, -1);
+			if (parts.length != expectedParts) {
+				throw new BadRequestException("Cursor inválido");
+			}
+			return parts;
+		}
+		catch (IllegalArgumentException e) {
+			throw new BadRequestException("Cursor inválido");
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.devsuperior.dscommerce.util;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET responses: the body is only built when the client's
+ * If-None-Match does not already hold the current ETag.
+ */
+public final class HttpCacheUtil {
+
+	private HttpCacheUtil() {
+	}
+
+	public static <T> ResponseEntity<T> conditional(WebRequest request, String etag, CacheControl cacheControl,
+			Supplier<T> body) {
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+		}
+		return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+	}
+}
@@ -0,0 +1,198 @@
+package com.devsuperior.dscommerce.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderItemDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.devsuperior.dscommerce.services.exceptions.UnprocessableEntityException;
+import com.devsuperior.dscommerce.tests.OrderFactory;
+import com.devsuperior.dscommerce.tests.UserFactory;
+
+public class OrderIdempotencyStoreTests {
+
+	private OrderIdempotencyStore store;
+	private Order order;
+	private OrderDTO orderDTO;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		store = new OrderIdempotencyStore(Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+		order = OrderFactory.createOrder(UserFactory.createClientUser());
+		orderDTO = new OrderDTO(order);
+	}
+
+	@Test
+	public void executeShouldReplayStoredOrderWhenKeyIsRepeated() {
+		AtomicInteger inserts = new AtomicInteger();
+
+		OrderDTO first = store.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts));
+		OrderDTO second = store.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts));
+
+		Assertions.assertSame(first, second);
+		Assertions.assertEquals(1, inserts.get());
+	}
+
+	@Test
+	public void executeShouldKeepKeysSeparatePerUser() {
+		AtomicInteger inserts = new AtomicInteger();
+
+		store.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts));
+		store.execute("alex@gmail.com", "key", orderDTO, () -> insert(inserts));
+
+		Assertions.assertEquals(2, inserts.get());
+	}
+
+	@Test
+	public void executeShouldCoalesceConcurrentDuplicatesOntoInFlightRequest() throws Exception {
+		AtomicInteger inserts = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<OrderDTO> owner = executor.submit(() -> store.execute("maria@gmail.com", "key", orderDTO, () -> {
+				started.countDown();
+				await(release);
+				return insert(inserts);
+			}));
+			Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			Future<OrderDTO> duplicate1 = executor.submit(() -> store.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts)));
+			Future<OrderDTO> duplicate2 = executor.submit(() -> store.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts)));
+			Thread.sleep(100);
+			Assertions.assertFalse(duplicate1.isDone());
+			release.countDown();
+
+			OrderDTO result = owner.get(5, TimeUnit.SECONDS);
+			Assertions.assertSame(result, duplicate1.get(5, TimeUnit.SECONDS));
+			Assertions.assertSame(result, duplicate2.get(5, TimeUnit.SECONDS));
+			Assertions.assertEquals(1, inserts.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void executeShouldForgetKeyWhenInsertFails() {
+		AtomicInteger inserts = new AtomicInteger();
+
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			store.execute("maria@gmail.com", "key", orderDTO, () -> {
+				throw new IllegalStateException();
+			});
+		});
+		store.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts));
+
+		Assertions.assertEquals(1, inserts.get());
+	}
+
+	@Test
+	public void executeShouldForgetKeyWhenInsertThrowsError() {
+		AtomicInteger inserts = new AtomicInteger();
+
+		Assertions.assertThrows(StackOverflowError.class, () -> {
+			store.execute("maria@gmail.com", "key", orderDTO, () -> {
+				throw new StackOverflowError();
+			});
+		});
+		store.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts));
+
+		Assertions.assertEquals(1, inserts.get());
+	}
+
+	@Test
+	public void executeShouldThrowServiceUnavailableExceptionWhenInFlightRequestOutlastsWaitTimeout() throws Exception {
+		OrderIdempotencyStore shortWaitStore = new OrderIdempotencyStore(Duration.ofMinutes(1), 100, Duration.ofMillis(50));
+		AtomicInteger inserts = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<OrderDTO> owner = executor.submit(() -> shortWaitStore.execute("maria@gmail.com", "key", orderDTO, () -> {
+				started.countDown();
+				await(release);
+				return insert(inserts);
+			}));
+			Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+			Assertions.assertThrows(ServiceUnavailableException.class, () -> {
+				shortWaitStore.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts));
+			});
+			release.countDown();
+			owner.get(5, TimeUnit.SECONDS);
+			Assertions.assertEquals(1, inserts.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void executeShouldReplayWhenSameLinesAreReorderedOrSplit() {
+		AtomicInteger inserts = new AtomicInteger();
+		OrderDTO request = new OrderDTO(order);
+		request.getItems().clear();
+		request.getItems().add(new OrderItemDTO(1L, "Console PlayStation 5", 3999.0, 2, null));
+		request.getItems().add(new OrderItemDTO(2L, "Smart TV", 2190.0, 1, null));
+		OrderDTO retry = new OrderDTO(order);
+		retry.getItems().clear();
+		retry.getItems().add(new OrderItemDTO(2L, "Smart TV", 2190.0, 1, null));
+		retry.getItems().add(new OrderItemDTO(1L, "Console PlayStation 5", 3999.0, 1, null));
+		retry.getItems().add(new OrderItemDTO(1L, "Console PlayStation 5", 3999.0, 1, null));
+
+		OrderDTO first = store.execute("maria@gmail.com", "key", request, () -> insert(inserts));
+		OrderDTO second = store.execute("maria@gmail.com", "key", retry, () -> insert(inserts));
+
+		Assertions.assertSame(first, second);
+		Assertions.assertEquals(1, inserts.get());
+	}
+
+	@Test
+	public void executeShouldThrowUnprocessableEntityExceptionWhenKeyIsReusedForAnotherOrder() {
+		AtomicInteger inserts = new AtomicInteger();
+		store.execute("maria@gmail.com", "key", orderDTO, () -> insert(inserts));
+
+		OrderDTO other = new OrderDTO(OrderFactory.createOrder(UserFactory.createClientUser()));
+		other.getItems().add(new OrderItemDTO(2L, "Smart TV", 2190.0, 1, null));
+
+		Assertions.assertThrows(UnprocessableEntityException.class, () -> {
+			store.execute("maria@gmail.com", "key", other, () -> insert(inserts));
+		});
+	}
+
+	@Test
+	public void executeShouldThrowBadRequestExceptionWhenKeyIsTooLong() {
+		String key = "k".repeat(OrderIdempotencyStore.MAX_KEY_LENGTH + 1);
+
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			store.execute("maria@gmail.com", key, orderDTO, () -> orderDTO);
+		});
+	}
+
+	private OrderDTO insert(AtomicInteger inserts) {
+		inserts.incrementAndGet();
+		return new OrderDTO(order);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.devsuperior.dscommerce.cache;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscommerce.dto.CategoryDTO;
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.tests.ProductFactory;
+
+public class ProductDetailCacheTests {
+
+	private ProductDetailCache cache;
+	private ProductDTO productDTO;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = new ProductDetailCache(Duration.ofMinutes(1), 100);
+		productDTO = new ProductDTO(ProductFactory.createProduct());
+	}
+
+	@Test
+	public void getShouldReturnSnapshotWithUnmodifiableCategories() {
+		ProductDTO result = cache.get(1L, id -> productDTO);
+
+		Assertions.assertNotSame(productDTO, result);
+		Assertions.assertEquals(productDTO.getCategories().size(), result.getCategories().size());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> {
+			result.getCategories().add(new CategoryDTO(99L, "Other"));
+		});
+	}
+
+	@Test
+	public void getShouldNotExposeLaterChangesToLoadedDTO() {
+		ProductDTO result = cache.get(1L, id -> productDTO);
+
+		productDTO.getCategories().clear();
+
+		Assertions.assertEquals(1, cache.get(1L, id -> productDTO).getCategories().size());
+		Assertions.assertSame(result, cache.get(1L, id -> productDTO));
+	}
+}
@@ -0,0 +1,54 @@
+package com.devsuperior.dscommerce.controllersIT;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class CategoryControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void findAllShouldReturnCategoriesWithoutStatementsOnceLoaded() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/categories")
+                .accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/categories")
+                    .accept(MediaType.APPLICATION_JSON));
+
+            resultActions.andExpect(status().isOk());
+            resultActions.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+            resultActions.andExpect(jsonPath("$.length()").value(3));
+            resultActions.andExpect(jsonPath("$[0].name").value("Livros"));
+            Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+}
@@ -4,17 +4,28 @@ import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.utils.TokenUtil;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 @SpringBootTest
@@ -26,6 +37,10 @@ public class OrderControllerIT {
     private MockMvc mockMvc;
     @Autowired
     private TokenUtil tokenUtil;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     private String bearerTokenAdmin;
     private String bearerTokenClient;
@@ -119,4 +134,357 @@ public class OrderControllerIT {
 
         resultActions.andExpect(status().isUnauthorized());
     }
+
+    @Test
+    public void findByIdShouldLoadOrderGraphInOneStatementWhenLoggedAsAdmin() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/orders/{id}", existsId)
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .accept(MediaType.APPLICATION_JSON));
+
+            resultActions.andExpect(status().isOk());
+            resultActions.andExpect(jsonPath("$.items.length()").value(2));
+            // order graph in one statement, plus the user and roles read by validateSelfOrAdmin
+            Assertions.assertTrue(statistics.getPrepareStatementCount() <= 3);
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void searchShouldFilterByStatusDateRangeAndClientWhenLoggedAsAdmin() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/orders")
+                .param("clientId", "1")
+                .param("from", "2022-07-01T00:00:00Z")
+                .param("to", "2022-08-01T00:00:00Z")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.totalElements").value(1));
+        resultActions.andExpect(jsonPath("$.content[0].id").value(1));
+        resultActions.andExpect(jsonPath("$.content[0].clientId").value(1));
+        resultActions.andExpect(jsonPath("$.content[0].total").value(1431.0));
+        resultActions.andExpect(jsonPath("$.content[0].itemCount").value(3));
+
+        ResultActions byStatus = mockMvc.perform(MockMvcRequestBuilders
+                .get("/orders")
+                .param("status", "WAITING_PAYMENT")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        byStatus.andExpect(status().isOk());
+        byStatus.andExpect(jsonPath("$.totalElements").value(1));
+        byStatus.andExpect(jsonPath("$.content[0].id").value(3));
+    }
+
+    @Test
+    public void searchShouldReturnNewestFirstWhenNoFilterIsGiven() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/orders?size=2")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.totalElements").value(3));
+        resultActions.andExpect(jsonPath("$.content.length()").value(2));
+        resultActions.andExpect(jsonPath("$.content[0].id").value(3));
+        resultActions.andExpect(jsonPath("$.content[1].id").value(2));
+    }
+
+    @Test
+    public void searchShouldReturnBadRequestWhenSortPropertyIsNotAllowed() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/orders?sort=client.password")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchShouldReturnForbiddenWhenLoggedAsClient() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void insertAsyncShouldAcceptOrderAndCompleteTicketWhenLoggedAsClient() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        String orderJson = "{\"items\":[{\"productId\":1,\"quantity\":2},{\"productId\":2,\"quantity\":1}]}";
+
+        ResultActions accepted = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders?async=true")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .content(orderJson)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        accepted.andExpect(status().isAccepted());
+        accepted.andExpect(jsonPath("$.status").value("PENDING"));
+        String ticketId = JsonPath.read(accepted.andReturn().getResponse().getContentAsString(), "$.id");
+        accepted.andExpect(header().string("Location", "http://localhost/orders/tickets/" + ticketId));
+
+        Number orderId = null;
+        try {
+            for (int attempt = 0; attempt < 50 && orderId == null; attempt++) {
+                String ticket = mockMvc.perform(MockMvcRequestBuilders
+                        .get("/orders/tickets/{id}", ticketId)
+                        .header("Authorization", "Bearer " + bearerTokenClient)
+                        .accept(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                orderId = JsonPath.read(ticket, "$.orderId");
+                if (orderId == null) {
+                    Thread.sleep(100);
+                }
+            }
+            Assertions.assertNotNull(orderId);
+
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get("/orders/{id}", orderId)
+                    .header("Authorization", "Bearer " + bearerTokenClient)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total").value(2371.0));
+        }
+        finally {
+            if (orderId != null) {
+                jdbcTemplate.update("DELETE FROM tb_order_item WHERE order_id = ?", orderId.longValue());
+                jdbcTemplate.update("DELETE FROM tb_order WHERE id = ?", orderId.longValue());
+            }
+            jdbcTemplate.update("DELETE FROM tb_product_sales_day WHERE sale_date > DATE '2022-12-31'");
+            jdbcTemplate.update("DELETE FROM tb_category_sales_day WHERE sale_date > DATE '2022-12-31'");
+        }
+    }
+
+    @Test
+    public void findTicketShouldReturnNotFoundWhenTicketDoesNotExist() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/orders/tickets/{id}", "unknown")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void insertShouldBatchItemInsertsWhenLoggedAsClient() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        String orderJson = "{\"items\":[" +
+                "{\"productId\":1,\"quantity\":2},{\"productId\":2,\"quantity\":1}," +
+                "{\"productId\":3,\"quantity\":1},{\"productId\":4,\"quantity\":3}," +
+                "{\"productId\":5,\"quantity\":1},{\"productId\":6,\"quantity\":1}]}";
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                    .post("/orders")
+                    .header("Authorization", "Bearer " + bearerTokenClient)
+                    .content(orderJson)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON));
+            entityManager.flush();
+
+            resultActions.andExpect(status().isCreated());
+            resultActions.andExpect(jsonPath("$.items.length()").value(6));
+            Assertions.assertEquals(7, statistics.getEntityInsertCount());
+            // user, products IN, id block, order insert and one batched item insert
+            Assertions.assertTrue(statistics.getPrepareStatementCount() <= 5);
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void insertShouldReplayStoredOrderWhenIdempotencyKeyIsRepeated() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        String idempotencyKey = UUID.randomUUID().toString();
+        String orderJson = "{\"items\":[{\"productId\":1,\"quantity\":2},{\"productId\":2,\"quantity\":1}]}";
+        Long ordersBefore = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_order", Long.class);
+
+        String first = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .header("Idempotency-Key", idempotencyKey)
+                .content(orderJson)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Number orderId = JsonPath.read(first, "$.id");
+
+        ResultActions replay = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .header("Idempotency-Key", idempotencyKey)
+                .content(orderJson)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+        entityManager.flush();
+
+        replay.andExpect(status().isCreated());
+        replay.andExpect(jsonPath("$.id").value(orderId));
+        replay.andExpect(header().string("Location", "http://localhost/orders/" + orderId));
+        replay.andExpect(jsonPath("$.total").value(2371.0));
+        Assertions.assertEquals(ordersBefore + 1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_order", Long.class));
+    }
+
+    @Test
+    public void insertShouldReturnUnprocessableEntityWhenIdempotencyKeyIsReusedForAnotherOrder() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .header("Idempotency-Key", idempotencyKey)
+                .content("{\"items\":[{\"productId\":1,\"quantity\":2}]}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .header("Idempotency-Key", idempotencyKey)
+                .content("{\"items\":[{\"productId\":1,\"quantity\":3}]}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void insertShouldPersistTotalAndItemCountWhenLoggedAsClient() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        String orderJson = "{\"items\":[{\"productId\":1,\"quantity\":2},{\"productId\":2,\"quantity\":1}," +
+                "{\"productId\":1,\"quantity\":1}]}";
+
+        String body = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .content(orderJson)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.total").value(2461.5))
+                .andReturn().getResponse().getContentAsString();
+        entityManager.flush();
+        Number orderId = JsonPath.read(body, "$.id");
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT total, item_count FROM tb_order WHERE id = ?",
+                orderId.longValue());
+        Assertions.assertEquals(2461.5, ((Number) row.get("TOTAL")).doubleValue());
+        Assertions.assertEquals(4L, ((Number) row.get("ITEM_COUNT")).longValue());
+    }
+
+    @Test
+    public void insertShouldReturnUnprocessableEntityWhenStockIsInsufficient() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .content("{\"items\":[{\"productId\":1,\"quantity\":1},{\"productId\":2,\"quantity\":100000}]}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isUnprocessableEntity());
+        resultActions.andExpect(jsonPath("$.error").value("Estoque insuficiente para o produto: 2"));
+    }
+
+    @Test
+    public void insertShouldReturnUnprocessableEntityAndKeepStockWhenQuantityIsNegative() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+        long stock = stockOfProductOne();
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .content("{\"items\":[{\"productId\":1,\"quantity\":-1000}]}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isUnprocessableEntity());
+        resultActions.andExpect(jsonPath("$.errors[0].fieldName").value("items[0].quantity"));
+        resultActions.andExpect(jsonPath("$.errors[0].message").value("A quantidade deve ser positiva"));
+        Assertions.assertEquals(stock, stockOfProductOne());
+    }
+
+    @Test
+    public void insertShouldReturnUnprocessableEntityWhenQuantityIsMissing() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .content("{\"items\":[{\"productId\":1}]}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isUnprocessableEntity());
+        resultActions.andExpect(jsonPath("$.errors[0].fieldName").value("items[0].quantity"));
+        resultActions.andExpect(jsonPath("$.errors[0].message").value("Campo requerido"));
+    }
+
+    @Test
+    public void insertAsyncShouldReturnUnprocessableEntityAndKeepStockWhenQuantityIsNegative() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+        long stock = stockOfProductOne();
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/orders?async=true")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .content("{\"items\":[{\"productId\":1,\"quantity\":-1000}]}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isUnprocessableEntity());
+        resultActions.andExpect(jsonPath("$.errors[0].fieldName").value("items[0].quantity"));
+        Assertions.assertEquals(stock, stockOfProductOne());
+    }
+
+    private long stockOfProductOne() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+        String inventory = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/1/inventory")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(inventory, "$.available")).longValue();
+    }
 }
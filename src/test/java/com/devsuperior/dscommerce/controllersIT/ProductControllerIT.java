@@ -1,5 +1,6 @@
 package com.devsuperior.dscommerce.controllersIT;
 
+import com.devsuperior.dscommerce.cache.ProductDetailCache;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.Product;
@@ -9,6 +10,11 @@ import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.tests.UserFactory;
 import com.devsuperior.dscommerce.utils.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -16,13 +22,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -36,6 +50,12 @@ public class ProductControllerIT {
     private ObjectMapper objectMapper;
     @Autowired
     private TokenUtil tokenUtil;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ProductDetailCache detailCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     private String productName, bearerTokenAdmin, bearerTokenClient, invalidToken;
     private Product product;
@@ -73,6 +93,478 @@ public class ProductControllerIT {
         resultActions.andExpect(jsonPath("$.content[0].name").value("The Lord of the Rings"));
     }
 
+    @Test
+    public void findAllShouldFilterByCategoriesWhenCategoriesParamIsPresent() throws Exception {
+        ResultActions anyCategory = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?categories=1")
+                .accept(MediaType.APPLICATION_JSON));
+
+        anyCategory.andExpect(status().isOk());
+        anyCategory.andExpect(jsonPath("$.totalElements").value(2));
+        anyCategory.andExpect(jsonPath("$.content[0].id").value(1L));
+        anyCategory.andExpect(jsonPath("$.content[1].id").value(5L));
+
+        ResultActions allCategories = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?categories=2,3&match=all")
+                .accept(MediaType.APPLICATION_JSON));
+
+        allCategories.andExpect(status().isOk());
+        allCategories.andExpect(jsonPath("$.totalElements").value(1));
+        allCategories.andExpect(jsonPath("$.content[0].name").value("Smart TV"));
+    }
+
+    @Test
+    public void findAllShouldFilterByPriceRangeAndSortByPrice() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?maxPrice=1250&sort=price,desc&size=3")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.totalElements").value(4));
+        resultActions.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        resultActions.andExpect(jsonPath("$.content[1].name").value("PC Gamer"));
+        resultActions.andExpect(jsonPath("$.content[2].name").value("Rails for Dummies"));
+
+        ResultActions underHundred = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?maxPrice=100&sort=price")
+                .accept(MediaType.APPLICATION_JSON));
+
+        underHundred.andExpect(status().isOk());
+        underHundred.andExpect(jsonPath("$.totalElements").value(1));
+        underHundred.andExpect(jsonPath("$.content[0].name").value("The Lord of the Rings"));
+    }
+
+    @Test
+    public void findAllFuzzyShouldRankProductsDespiteTypos() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?fuzzy=true")
+                .param("name", "macbok pro")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+    }
+
+    @Test
+    public void searchShouldRankProductsByNameAndDescription() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/search?q=macbook&size=5")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.totalElements").value(1));
+        resultActions.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+
+        ResultActions descriptionOnly = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/search?q=lorem&size=5")
+                .accept(MediaType.APPLICATION_JSON));
+
+        descriptionOnly.andExpect(status().isOk());
+        descriptionOnly.andExpect(jsonPath("$.totalElements").value(25));
+    }
+
+    @Test
+    public void suggestShouldReturnProductsWithWordStartingWithPrefix() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/suggest?q=GAM&limit=3")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.length()").value(3));
+        resultActions.andExpect(jsonPath("$[0].name").value("PC Gamer"));
+        resultActions.andExpect(jsonPath("$[1].name").value("PC Gamer X"));
+    }
+
+    @Test
+    public void findFacetsShouldCountMatchingProductsPerCategory() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/facets")
+                .param("name", "pc gamer")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.length()").value(3));
+        resultActions.andExpect(jsonPath("$[0].name").value("Livros"));
+        resultActions.andExpect(jsonPath("$[0].count").value(0));
+        resultActions.andExpect(jsonPath("$[2].name").value("Computadores"));
+        resultActions.andExpect(jsonPath("$[2].count").value(21));
+    }
+
+    @Test
+    public void findAllShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        ResultActions firstResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products")
+                .accept(MediaType.APPLICATION_JSON));
+
+        firstResponse.andExpect(status().isOk());
+        firstResponse.andExpect(header().exists("ETag"));
+        firstResponse.andExpect(header().string("Cache-Control", "max-age=10, public"));
+        String etag = firstResponse.andReturn().getResponse().getHeader("ETag");
+
+        ResultActions secondResponse = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products")
+                .header("If-None-Match", etag)
+                .accept(MediaType.APPLICATION_JSON));
+
+        secondResponse.andExpect(status().isNotModified());
+        secondResponse.andExpect(header().string("ETag", etag));
+        secondResponse.andExpect(content().string(""));
+    }
+
+    @Test
+    public void findAllShouldReturnSliceWithApproximateTotalWhenCountIsDisabled() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?count=false&approxTotal=true&size=5")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.content.length()").value(5));
+        resultActions.andExpect(jsonPath("$.hasNext").value(true));
+        resultActions.andExpect(jsonPath("$.approximateTotal").value(25));
+        resultActions.andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void findAllShouldFilterSliceByCategoryWhenCountIsDisabled() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?count=false&approxTotal=true&categories=1")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.content.length()").value(2));
+        resultActions.andExpect(jsonPath("$.content[0].id").value(1));
+        resultActions.andExpect(jsonPath("$.content[1].id").value(5));
+        resultActions.andExpect(jsonPath("$.hasNext").value(false));
+        resultActions.andExpect(jsonPath("$.approximateTotal").value(2));
+    }
+
+    @Test
+    public void findAllShouldFilterSliceByPriceWhenCountIsDisabled() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?count=false&maxPrice=150&sort=price,desc")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.content.length()").value(2));
+        resultActions.andExpect(jsonPath("$.content[0].id").value(5));
+        resultActions.andExpect(jsonPath("$.content[1].id").value(1));
+        resultActions.andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    public void findAllShouldReturnEmptyPageWhenMinPriceIsBeyondEveryPrice() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?minPrice=1e20")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenPriceBoundIsNotFinite() throws Exception {
+        ResultActions nanResult = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?minPrice=NaN")
+                .accept(MediaType.APPLICATION_JSON));
+        ResultActions infinityResult = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?count=false&maxPrice=Infinity")
+                .accept(MediaType.APPLICATION_JSON));
+
+        nanResult.andExpect(status().isBadRequest());
+        nanResult.andExpect(jsonPath("$.error").value("Faixa de preço inválida"));
+        infinityResult.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenCursorOrFuzzyModeHasPriceFilter() throws Exception {
+        ResultActions cursorResult = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?after=&minPrice=100")
+                .accept(MediaType.APPLICATION_JSON));
+        ResultActions fuzzyResult = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?fuzzy=true&name=macbok&maxPrice=2000")
+                .accept(MediaType.APPLICATION_JSON));
+
+        cursorResult.andExpect(status().isBadRequest());
+        fuzzyResult.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenCursorOrFuzzyModeHasCategoryFilter() throws Exception {
+        ResultActions cursorResult = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?after=&categories=1")
+                .accept(MediaType.APPLICATION_JSON));
+        ResultActions fuzzyResult = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?fuzzy=true&name=macbok&categories=1")
+                .accept(MediaType.APPLICATION_JSON));
+
+        cursorResult.andExpect(status().isBadRequest());
+        fuzzyResult.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllAfterShouldWalkCatalogByCursorWhenAfterParamIsPresent() throws Exception {
+        ResultActions firstPage = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?after=&size=3&sort=name")
+                .accept(MediaType.APPLICATION_JSON));
+
+        firstPage.andExpect(status().isOk());
+        firstPage.andExpect(jsonPath("$.content.length()").value(3));
+        firstPage.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        firstPage.andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));
+        firstPage.andExpect(jsonPath("$.hasNext").value(true));
+
+        String nextCursor = JsonPath.read(firstPage.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+
+        ResultActions secondPage = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?size=3&after={cursor}", nextCursor)
+                .accept(MediaType.APPLICATION_JSON));
+
+        secondPage.andExpect(status().isOk());
+        secondPage.andExpect(jsonPath("$.content[0].name").value("PC Gamer Boo"));
+    }
+
+    @Test
+    public void findAllAfterShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products?after=not-a-cursor")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findByIdShouldLoadProductAndCategoriesInSingleStatement() throws Exception {
+        detailCache.invalidateAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/products/{id}", 2L)
+                    .accept(MediaType.APPLICATION_JSON));
+
+            resultActions.andExpect(status().isOk());
+            resultActions.andExpect(jsonPath("$.name").value("Smart TV"));
+            resultActions.andExpect(jsonPath("$.categories.length()").value(2));
+            Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void findByIdShouldServeRepeatedReadsWithoutStatements() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/products/{id}", 3L)
+                .accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/products/{id}", 3L)
+                    .accept(MediaType.APPLICATION_JSON));
+
+            resultActions.andExpect(status().isOk());
+            resultActions.andExpect(jsonPath("$.name").value("Macbook Pro"));
+            Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        String etag = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/{id}", 1L)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/{id}", 1L)
+                .header("If-None-Match", etag)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/{id}", 2L)
+                .header("If-None-Match", etag)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void detailCacheStatsShouldReturnForbiddenWhenLoggedAsClient() throws Exception {
+        String bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/cache-stats")
+                        .header("Authorization", "Bearer " + bearerTokenClient)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void exportShouldStreamWholeCatalogAsNdjsonWhenLoggedAsAdmin() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/export")
+                        .header("Authorization", "Bearer " + bearerTokenAdmin))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(25, lines.length);
+        ProductDTO first = objectMapper.readValue(lines[0], ProductDTO.class);
+        ProductDTO second = objectMapper.readValue(lines[1], ProductDTO.class);
+        Assertions.assertEquals("The Lord of the Rings", first.getName());
+        Assertions.assertEquals("Livros", first.getCategories().get(0).getName());
+        Assertions.assertEquals(2, second.getCategories().size());
+    }
+
+    @Test
+    public void exportShouldStreamWholeCatalogAsCsvWhenFormatIsCsv() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/export")
+                        .param("format", "csv")
+                        .header("Authorization", "Bearer " + bearerTokenAdmin))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(26, lines.length);
+        Assertions.assertEquals("id,name,description,price,imgUrl,categories", lines[0]);
+        Assertions.assertTrue(lines[2].startsWith("2,Smart TV,"));
+        Assertions.assertTrue(lines[2].endsWith(",2|3"));
+    }
+
+    @Test
+    public void exportShouldReturnBadRequestWhenFormatIsUnknown() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/export")
+                        .param("format", "xml")
+                        .header("Authorization", "Bearer " + bearerTokenAdmin));
+
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportShouldReturnForbiddenWhenLoggedAsClient() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/products/export")
+                        .header("Authorization", "Bearer " + bearerTokenClient));
+
+        resultActions.andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void importNdjsonShouldInsertValidRowsAndReportInvalidOnesWhenLoggedAsAdmin() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        String body = String.join("\n",
+                "{\"name\":\"Importado Um\",\"description\":\"Descrição do produto\",\"price\":10.0,\"categories\":[{\"id\":1}]}",
+                "{oops",
+                "{\"name\":\"Im\",\"description\":\"Descrição do produto\",\"price\":10.0,\"categories\":[{\"id\":1}]}",
+                "{\"name\":\"Importado Tres\",\"description\":\"Descrição do produto\",\"price\":10.0,\"categories\":[{\"id\":99}]}",
+                "",
+                "{\"name\":\"Importado Dois\",\"description\":\"Descrição do produto\",\"price\":20.0,\"categories\":[{\"id\":2},{\"id\":3}]}");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/products/import")
+                        .header("Authorization", "Bearer " + bearerTokenAdmin)
+                        .content(body)
+                        .contentType("application/x-ndjson")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.received").value(5));
+        resultActions.andExpect(jsonPath("$.imported").value(2));
+        resultActions.andExpect(jsonPath("$.failed").value(3));
+        resultActions.andExpect(jsonPath("$.errors[0].line").value(2));
+        resultActions.andExpect(jsonPath("$.errors[1].line").value(3));
+        resultActions.andExpect(jsonPath("$.errors[1].message").value("name: Nome precisar ter de 3 a 80 caracteres"));
+        resultActions.andExpect(jsonPath("$.errors[2].line").value(4));
+        resultActions.andExpect(jsonPath("$.errors[2].message").value("categories: Categoria inexistente: 99"));
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_product WHERE name LIKE 'Importado%'", Integer.class));
+        Assertions.assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_product_category pc JOIN tb_product p ON p.id = pc.product_id " +
+                "WHERE p.name LIKE 'Importado%'", Integer.class));
+    }
+
+    @Test
+    public void importCsvShouldInsertValidRowsAndReportInvalidOnesWhenLoggedAsAdmin() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        String body = "price,name,categories,description,imgUrl\r\n" +
+                "10.5,\"Importado, com vírgula\",1|3,\"Linha um\nlinha dois\",\r\n" +
+                "abc,Importado Sem Preco,1,Descrição do produto,\r\n" +
+                "7,Importado Simples,2,Descrição do produto,https://img.example/1.png\r\n";
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/products/import")
+                        .header("Authorization", "Bearer " + bearerTokenAdmin)
+                        .content(body)
+                        .contentType("text/csv")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.received").value(3));
+        resultActions.andExpect(jsonPath("$.imported").value(2));
+        resultActions.andExpect(jsonPath("$.errors[0].line").value(4));
+        resultActions.andExpect(jsonPath("$.errors[0].message").value("price: Preço inválido: abc"));
+        Assertions.assertEquals("Linha um\nlinha dois", jdbcTemplate.queryForObject(
+                "SELECT description FROM tb_product WHERE name = 'Importado, com vírgula'", String.class));
+    }
+
+    @Test
+    public void importCsvShouldReturnBadRequestWhenHeaderIsMissingColumns() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/products/import")
+                        .header("Authorization", "Bearer " + bearerTokenAdmin)
+                        .content("name,price\nImportado,10\n")
+                        .contentType("text/csv")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void importShouldReturnForbiddenWhenLoggedAsClient() throws Exception {
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .post("/products/import")
+                        .header("Authorization", "Bearer " + bearerTokenClient)
+                        .content("{}")
+                        .contentType("application/x-ndjson")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isForbidden());
+    }
+
     @Test
     public void insertShouldReturnProductDtoWhenLoggedAsAdmin() throws Exception {
         bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
@@ -269,4 +761,59 @@ public class ProductControllerIT {
         resultActions.andExpect(status().isUnauthorized());
     }
 
+    @Test
+    public void updateInventoryShouldLimitOrdersToNewStockWhenLoggedAsAdmin() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+        bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        try {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .put("/products/{id}/inventory", 25L)
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .content("{\"available\":7}")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.productId").value(25))
+                    .andExpect(jsonPath("$.available").value(7));
+
+            mockMvc.perform(MockMvcRequestBuilders
+                    .post("/orders")
+                    .header("Authorization", "Bearer " + bearerTokenClient)
+                    .content("{\"items\":[{\"productId\":25,\"quantity\":8}]}")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isUnprocessableEntity());
+
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get("/products/{id}/inventory", 25L)
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.available").value(7));
+        }
+        finally {
+            mockMvc.perform(MockMvcRequestBuilders
+                    .put("/products/{id}/inventory", 25L)
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .content("{\"available\":1000}")
+                    .contentType(MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @Test
+    public void updateInventoryShouldReturnUnprocessableEntityWhenAvailableIsNegative() throws Exception {
+        bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .put("/products/{id}/inventory", existsId)
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .content("{\"available\":-1}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isUnprocessableEntity());
+        resultActions.andExpect(jsonPath("$.errors[0].fieldName").value("available"));
+    }
+
 }
@@ -0,0 +1,275 @@
+package com.devsuperior.dscommerce.controllersIT;
+
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.OrderItem;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.OrdersPlacedEvent;
+import com.devsuperior.dscommerce.services.SalesRollupService;
+import com.devsuperior.dscommerce.utils.TokenUtil;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class ReportControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TokenUtil tokenUtil;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Test
+    public void productSalesShouldReturnDailyRollupsInRangeWhenLoggedAsAdmin() throws Exception {
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/reports/sales/products?from=2022-07-01&to=2022-08-01")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.totalElements").value(3));
+        resultActions.andExpect(jsonPath("$.content[0].id").value(1));
+        resultActions.andExpect(jsonPath("$.content[0].day").value("2022-07-25"));
+        resultActions.andExpect(jsonPath("$.content[0].units").value(2));
+        resultActions.andExpect(jsonPath("$.content[0].revenue").value(181.0));
+        resultActions.andExpect(jsonPath("$.content[2].day").value("2022-07-29"));
+    }
+
+    @Test
+    public void categorySalesShouldFilterByCategoryWhenLoggedAsAdmin() throws Exception {
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/reports/sales/categories?from=2022-07-01&to=2022-09-01&categoryId=1")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.totalElements").value(2));
+        resultActions.andExpect(jsonPath("$.content[0].day").value("2022-07-25"));
+        resultActions.andExpect(jsonPath("$.content[1].day").value("2022-08-03"));
+        resultActions.andExpect(jsonPath("$.content[1].revenue").value(90.5));
+    }
+
+    @Test
+    public void productSalesShouldReturnBadRequestWhenRangeIsEmpty() throws Exception {
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/reports/sales/products?from=2022-08-01&to=2022-08-01")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void productSalesShouldReturnForbiddenWhenLoggedAsClient() throws Exception {
+        String bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/reports/sales/products?from=2022-07-01&to=2022-08-01")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void insertShouldAddOrderToRollupsAfterCommit() throws Exception {
+        String bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        Number orderId = null;
+        try {
+            String order = mockMvc.perform(MockMvcRequestBuilders
+                    .post("/orders")
+                    .header("Authorization", "Bearer " + bearerTokenClient)
+                    .content("{\"items\":[{\"productId\":1,\"quantity\":2},{\"productId\":2,\"quantity\":1}]}")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            orderId = JsonPath.read(order, "$.id");
+            LocalDate day = LocalDate.ofInstant(Instant.parse(JsonPath.read(order, "$.moment")), ZoneOffset.UTC);
+
+            ResultActions products = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/reports/sales/products?from={from}&to={to}&productId=1", day, day.plusDays(1))
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .accept(MediaType.APPLICATION_JSON));
+
+            products.andExpect(status().isOk());
+            products.andExpect(jsonPath("$.content[0].units").value(2));
+            products.andExpect(jsonPath("$.content[0].revenue").value(181.0));
+
+            // product 2 is in categories 2 and 3
+            ResultActions categories = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/reports/sales/categories?from={from}&to={to}", day, day.plusDays(1))
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .accept(MediaType.APPLICATION_JSON));
+
+            categories.andExpect(status().isOk());
+            categories.andExpect(jsonPath("$.totalElements").value(3));
+            categories.andExpect(jsonPath("$.content[1].id").value(2));
+            categories.andExpect(jsonPath("$.content[1].revenue").value(2190.0));
+        }
+        finally {
+            if (orderId != null) {
+                jdbcTemplate.update("DELETE FROM tb_order_item WHERE order_id = ?", orderId.longValue());
+                jdbcTemplate.update("DELETE FROM tb_order WHERE id = ?", orderId.longValue());
+            }
+            jdbcTemplate.update("DELETE FROM tb_product_sales_day WHERE sale_date > DATE '2022-12-31'");
+            jdbcTemplate.update("DELETE FROM tb_category_sales_day WHERE sale_date > DATE '2022-12-31'");
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildShouldRecomputeRollupsFromOrdersWhenLoggedAsAdmin() throws Exception {
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        jdbcTemplate.update("UPDATE tb_product_sales_day SET units = 99 WHERE product_id = 1 AND sale_date = DATE '2022-07-25'");
+        jdbcTemplate.update("DELETE FROM tb_category_sales_day WHERE category_id = 3");
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/reports/sales/rebuild")
+                .header("Authorization", "Bearer " + bearerTokenAdmin))
+                .andExpect(status().isNoContent());
+
+        ResultActions products = mockMvc.perform(MockMvcRequestBuilders
+                .get("/reports/sales/products?from=2022-07-01&to=2022-09-01")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        products.andExpect(status().isOk());
+        products.andExpect(jsonPath("$.totalElements").value(4));
+        products.andExpect(jsonPath("$.content[0].units").value(2));
+
+        ResultActions categories = mockMvc.perform(MockMvcRequestBuilders
+                .get("/reports/sales/categories?from=2022-07-01&to=2022-09-01&categoryId=3")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        categories.andExpect(status().isOk());
+        categories.andExpect(jsonPath("$.totalElements").value(2));
+        categories.andExpect(jsonPath("$.content[0].revenue").value(1250.0));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildShouldRepairRangeIncludingTodayWhenLoggedAsAdmin() throws Exception {
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        try {
+            // written behind the listener's back, as if its after-commit update had been lost
+            jdbcTemplate.update("INSERT INTO tb_order (id, moment, status, client_id, total, item_count) VALUES (999999, ?, 0, 1, 181.0, 2)",
+                    Timestamp.from(Instant.now()));
+            jdbcTemplate.update("INSERT INTO tb_order_item (order_id, product_id, quantity, price) VALUES (999999, 1, 2, 90.5)");
+
+            mockMvc.perform(MockMvcRequestBuilders
+                    .post("/reports/sales/rebuild?from={from}&to={to}", today, today.plusDays(1))
+                    .header("Authorization", "Bearer " + bearerTokenAdmin))
+                    .andExpect(status().isNoContent());
+
+            ResultActions products = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/reports/sales/products?from={from}&to={to}&productId=1", today, today.plusDays(1))
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .accept(MediaType.APPLICATION_JSON));
+
+            products.andExpect(status().isOk());
+            products.andExpect(jsonPath("$.totalElements").value(1));
+            products.andExpect(jsonPath("$.content[0].units").value(2));
+            products.andExpect(jsonPath("$.content[0].revenue").value(181.0));
+
+            // older days are outside the range and left alone
+            mockMvc.perform(MockMvcRequestBuilders
+                    .get("/reports/sales/products?from=2022-07-01&to=2022-09-01")
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.totalElements").value(4));
+        }
+        finally {
+            jdbcTemplate.update("DELETE FROM tb_order_item WHERE order_id = 999999");
+            jdbcTemplate.update("DELETE FROM tb_order WHERE id = 999999");
+            jdbcTemplate.update("DELETE FROM tb_product_sales_day WHERE sale_date > DATE '2022-12-31'");
+            jdbcTemplate.update("DELETE FROM tb_category_sales_day WHERE sale_date > DATE '2022-12-31'");
+        }
+    }
+
+    @Test
+    public void rebuildShouldReturnBadRequestWhenOnlyOneDateIsGiven() throws Exception {
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/reports/sales/rebuild?from=2022-07-01")
+                .header("Authorization", "Bearer " + bearerTokenAdmin))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildShouldCountOrderOnceWhenItsUpdateIsPendingDuringRebuild() throws Exception {
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Instant moment = Instant.now();
+
+        Order order = new Order();
+        order.setId(999999L);
+        order.setMoment(moment);
+        order.addItem(new OrderItem(order, new Product(1L, "The Lord of the Rings", null, 90.5, null), 2, 90.5));
+        OrdersPlacedEvent event = new OrdersPlacedEvent(List.of(order));
+        try {
+            // committed, with its after-commit update still to run when the rebuild reads it
+            salesRollupService.onOrdersCommitting(event);
+            jdbcTemplate.update("INSERT INTO tb_order (id, moment, status, client_id, total, item_count) VALUES (999999, ?, 0, 1, 181.0, 2)",
+                    Timestamp.from(moment));
+            jdbcTemplate.update("INSERT INTO tb_order_item (order_id, product_id, quantity, price) VALUES (999999, 1, 2, 90.5)");
+
+            salesRollupService.rebuild(today, today.plusDays(1));
+            salesRollupService.onOrdersPlaced(event);
+
+            ResultActions products = mockMvc.perform(MockMvcRequestBuilders
+                    .get("/reports/sales/products?from={from}&to={to}&productId=1", today, today.plusDays(1))
+                    .header("Authorization", "Bearer " + bearerTokenAdmin)
+                    .accept(MediaType.APPLICATION_JSON));
+
+            products.andExpect(status().isOk());
+            products.andExpect(jsonPath("$.content[0].units").value(2));
+            products.andExpect(jsonPath("$.content[0].revenue").value(181.0));
+        }
+        finally {
+            salesRollupService.onOrdersCompleted(event);
+            jdbcTemplate.update("DELETE FROM tb_order_item WHERE order_id = 999999");
+            jdbcTemplate.update("DELETE FROM tb_order WHERE id = 999999");
+            jdbcTemplate.update("DELETE FROM tb_product_sales_day WHERE sale_date > DATE '2022-12-31'");
+            jdbcTemplate.update("DELETE FROM tb_category_sales_day WHERE sale_date > DATE '2022-12-31'");
+        }
+    }
+}
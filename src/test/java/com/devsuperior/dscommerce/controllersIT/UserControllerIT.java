@@ -0,0 +1,94 @@
+package com.devsuperior.dscommerce.controllersIT;
+
+import com.devsuperior.dscommerce.utils.TokenUtil;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class UserControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Test
+    public void getMyOrdersShouldPageNewestFirstWithCursorWhenLoggedAsClient() throws Exception {
+        String bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions firstPage = mockMvc.perform(MockMvcRequestBuilders
+                .get("/users/me/orders?size=1")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .accept(MediaType.APPLICATION_JSON));
+
+        firstPage.andExpect(status().isOk());
+        firstPage.andExpect(jsonPath("$.content.length()").value(1));
+        firstPage.andExpect(jsonPath("$.content[0].id").value(3));
+        firstPage.andExpect(jsonPath("$.content[0].total").value(90.5));
+        firstPage.andExpect(jsonPath("$.content[0].itemCount").value(1));
+        firstPage.andExpect(jsonPath("$.hasNext").value(true));
+
+        String cursor = JsonPath.read(firstPage.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+
+        ResultActions secondPage = mockMvc.perform(MockMvcRequestBuilders
+                .get("/users/me/orders?size=1&after=" + cursor)
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .accept(MediaType.APPLICATION_JSON));
+
+        secondPage.andExpect(status().isOk());
+        secondPage.andExpect(jsonPath("$.content[0].id").value(1));
+        secondPage.andExpect(jsonPath("$.content[0].total").value(1431.0));
+        secondPage.andExpect(jsonPath("$.content[0].itemCount").value(3));
+        secondPage.andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    public void getMyOrdersShouldReturnOnlyOwnOrdersWhenLoggedAsAdmin() throws Exception {
+        String bearerTokenAdmin = tokenUtil.obtainAccessToken(mockMvc, "alex@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/users/me/orders")
+                .header("Authorization", "Bearer " + bearerTokenAdmin)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$.content.length()").value(1));
+        resultActions.andExpect(jsonPath("$.content[0].id").value(2));
+        resultActions.andExpect(jsonPath("$.content[0].status").value("DELIVERED"));
+    }
+
+    @Test
+    public void getMyOrdersShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+        String bearerTokenClient = tokenUtil.obtainAccessToken(mockMvc, "maria@gmail.com","123456");
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/users/me/orders?after=abc")
+                .header("Authorization", "Bearer " + bearerTokenClient)
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getMyOrdersShouldReturnUnauthorizedWhenNotLogged() throws Exception {
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get("/users/me/orders")
+                .accept(MediaType.APPLICATION_JSON));
+
+        resultActions.andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,155 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.projections.ProductCategoryProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.tests.CategoryFactory;
+import com.devsuperior.dscommerce.tests.ProductFactory;
+
+@ExtendWith(SpringExtension.class)
+public class ProductCategoryIndexTests {
+
+	@InjectMocks
+	private ProductCategoryIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		List<ProductCategoryProjection> rows = List.of(
+				row(1L, 1L), row(2L, 2L), row(2L, 3L), row(3L, 3L), row(70L, 3L), row(130L, 1L));
+
+		Mockito.when(repository.searchProductCategories()).thenReturn(rows);
+
+		index.rebuild();
+	}
+
+	@Test
+	public void filterShouldMatchAnyCategory() {
+
+		ProductFilter filter = index.filter(List.of(1L, 2L), false);
+
+		Assertions.assertTrue(filter.test(1));
+		Assertions.assertTrue(filter.test(2));
+		Assertions.assertTrue(filter.test(130));
+		Assertions.assertFalse(filter.test(3));
+		Assertions.assertFalse(filter.test(70));
+	}
+
+	@Test
+	public void filterShouldMatchAllCategories() {
+
+		ProductFilter filter = index.filter(List.of(2L, 3L), true);
+
+		Assertions.assertTrue(filter.test(2));
+		Assertions.assertFalse(filter.test(3));
+		Assertions.assertFalse(filter.test(70));
+	}
+
+	@Test
+	public void filterShouldMatchNothingWhenCategoryDoesNotExist() {
+
+		ProductFilter filter = index.filter(List.of(99L), false);
+
+		Assertions.assertFalse(filter.test(1));
+	}
+
+	@Test
+	public void countByCategoryShouldCountOnlyGivenProducts() {
+
+		Map<Long, Long> counts = index.countByCategory(new int[] {2, 3, 70, 130});
+
+		Assertions.assertEquals(1L, counts.get(1L));
+		Assertions.assertEquals(1L, counts.get(2L));
+		Assertions.assertEquals(3L, counts.get(3L));
+	}
+
+	@Test
+	public void onProductChangedShouldMoveProductBetweenCategories() {
+
+		Product product = ProductFactory.createProduct("Smart TV");
+		product.setId(3L);
+		product.getCategories().clear();
+		product.getCategories().add(CategoryFactory.createCategory(2L, "Eletrônicos"));
+
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+
+		Assertions.assertTrue(index.filter(List.of(2L), false).test(3));
+		Assertions.assertFalse(index.filter(List.of(3L), false).test(3));
+	}
+
+	@Test
+	public void onProductChangedShouldRemoveDeletedProduct() {
+
+		index.onProductChanged(ProductChangedEvent.deleted(2L));
+
+		Map<Long, Long> counts = index.countByCategory(new int[] {1, 2, 3});
+		Assertions.assertEquals(0L, counts.get(2L));
+		Assertions.assertEquals(1L, counts.get(3L));
+	}
+
+	@Test
+	public void rebuildShouldKeepChangesAppliedWhileItLoads() {
+
+		Product product = ProductFactory.createProduct("Smart TV");
+		product.setId(3L);
+		product.getCategories().clear();
+		product.getCategories().add(CategoryFactory.createCategory(2L, "Eletrônicos"));
+		List<ProductCategoryProjection> rows = List.of(row(1L, 1L), row(3L, 3L));
+		Mockito.when(repository.searchProductCategories()).thenAnswer(invocation -> {
+			index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+			return rows;
+		});
+
+		index.rebuild();
+
+		Assertions.assertTrue(index.filter(List.of(2L), false).test(3));
+		Assertions.assertFalse(index.filter(List.of(3L), false).test(3));
+	}
+
+	@Test
+	public void rebuildShouldDisableIndexWhenProductIdDoesNotFitInAnInt() {
+
+		List<ProductCategoryProjection> rows = List.of(row(1L, 1L), row(3_000_000_000L, 1L));
+		Mockito.when(repository.searchProductCategories()).thenReturn(rows);
+
+		index.rebuild();
+
+		Assertions.assertFalse(index.isReady());
+
+		index.onProductChanged(ProductChangedEvent.deleted(3_000_000_000L));
+
+		Assertions.assertTrue(index.isReady());
+		Assertions.assertTrue(index.filter(List.of(1L), false).test(1));
+	}
+
+	private static ProductCategoryProjection row(Long productId, Long categoryId) {
+		return new ProductCategoryProjection() {
+
+			@Override
+			public Long getProductId() {
+				return productId;
+			}
+
+			@Override
+			public Long getCategoryId() {
+				return categoryId;
+			}
+		};
+	}
+}
@@ -0,0 +1,138 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+@ExtendWith(SpringExtension.class)
+public class ProductFuzzyIndexTests {
+
+	@InjectMocks
+	private ProductFuzzyIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	private List<ProductMinDTO> products;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		products = new ArrayList<>();
+		products.add(new ProductMinDTO(1L, "The Lord of the Rings", 90.5, null));
+		products.add(new ProductMinDTO(2L, "Smart TV", 2190.0, null));
+		products.add(new ProductMinDTO(3L, "Macbook Pro", 1250.0, null));
+		products.add(new ProductMinDTO(4L, "Câmera Fotográfica", 800.0, null));
+		products.add(new ProductMinDTO(5L, "Caixa de Som", 150.0, null));
+
+		Mockito.when(repository.findAllMin()).thenReturn(products);
+
+		index.rebuild();
+	}
+
+	@Test
+	public void searchShouldIgnoreAccents() {
+
+		Page<ProductMinDTO> result = index.search("camera fotografica", PageRequest.of(0, 10));
+
+		Assertions.assertEquals(4L, result.getContent().get(0).getId());
+	}
+
+	@Test
+	public void searchShouldTolerateTypos() {
+
+		Assertions.assertEquals(3L, index.search("mackbok", PageRequest.of(0, 10)).getContent().get(0).getId());
+		Assertions.assertEquals(1L, index.search("lord of the rigns", PageRequest.of(0, 10)).getContent().get(0).getId());
+	}
+
+	@Test
+	public void searchShouldNotMatchUnrelatedNames() {
+
+		Page<ProductMinDTO> result = index.search("geladeira", PageRequest.of(0, 10));
+
+		Assertions.assertEquals(0, result.getTotalElements());
+	}
+
+	@Test
+	public void searchShouldReturnEmptyPageWhenNameIsBlank() {
+
+		Assertions.assertEquals(0, index.search("  ", PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	@Test
+	public void onProductChangedShouldRemoveDeletedProduct() {
+
+		index.onProductChanged(ProductChangedEvent.deleted(3L));
+
+		Assertions.assertEquals(0, index.search("macbook", PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	@Test
+	public void onProductChangedShouldReuseSlotsInsteadOfGrowing() {
+
+		for (int i = 0; i < 100; i++) {
+			index.onProductChanged(ProductChangedEvent.saved(productDTO(3L, "Macbook Pro " + i)));
+		}
+		index.onProductChanged(ProductChangedEvent.deleted(2L));
+		index.onProductChanged(ProductChangedEvent.saved(productDTO(6L, "Smart TV 4K")));
+
+		Assertions.assertEquals(5, index.slotCount());
+		Assertions.assertEquals(3L, index.search("macbook pro 99", PageRequest.of(0, 10)).getContent().get(0).getId());
+		Assertions.assertEquals(6L, index.search("smart tv", PageRequest.of(0, 10)).getContent().get(0).getId());
+	}
+
+	@Test
+	public void editDistanceShouldStopOnceBoundIsExceeded() {
+
+		Assertions.assertEquals(2, ProductFuzzyIndex.editDistance("rigns", "rings", 2));
+		Assertions.assertEquals(-1, ProductFuzzyIndex.editDistance("samsung", "som", 2));
+		Assertions.assertEquals(0, ProductFuzzyIndex.maxEdits(2));
+	}
+
+	@Test
+	public void rebuildShouldKeepChangesAppliedWhileItLoads() {
+
+		Mockito.when(repository.findAllMin()).thenAnswer(invocation -> {
+			index.onProductChanged(ProductChangedEvent.saved(productDTO(6L, "Smart TV 4K")));
+			index.onProductChanged(ProductChangedEvent.deleted(2L));
+			return products;
+		});
+
+		index.rebuild();
+
+		Page<ProductMinDTO> result = index.search("smart tv", PageRequest.of(0, 10));
+		Assertions.assertEquals(1, result.getTotalElements());
+		Assertions.assertEquals(6L, result.getContent().get(0).getId());
+	}
+
+	@Test
+	public void indexShouldKeepProductsWhoseIdDoesNotFitInAnInt() {
+
+		products.add(new ProductMinDTO(3_000_000_000L, "Smart Watch", 500.0, null));
+		index.rebuild();
+
+		Assertions.assertEquals(3_000_000_000L, index.search("smart watch", PageRequest.of(0, 10)).getContent().get(0).getId());
+
+		index.onProductChanged(ProductChangedEvent.deleted(3_000_000_000L));
+
+		Assertions.assertEquals(0, index.search("watch", PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	private static ProductDTO productDTO(Long id, String name) {
+		return new ProductDTO(id, name, "Lorem ipsum dolor sit amet", 100.0, null);
+	}
+}
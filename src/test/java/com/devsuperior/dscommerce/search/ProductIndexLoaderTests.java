@@ -0,0 +1,109 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.projections.ProductTextProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+@ExtendWith(SpringExtension.class)
+public class ProductIndexLoaderTests {
+
+	@InjectMocks
+	private ProductIndexLoader loader;
+
+	@Mock
+	private ProductRepository repository;
+
+	@Mock
+	private ProductSearchIndex searchIndex;
+
+	@Mock
+	private ProductCategoryIndex categoryIndex;
+
+	@Mock
+	private ProductPriceIndex priceIndex;
+
+	@Mock
+	private ProductSuggestIndex suggestIndex;
+
+	@Mock
+	private ProductFuzzyIndex fuzzyIndex;
+
+	@Mock
+	private ProductTextIndex textIndex;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void rebuildShouldReadTheCatalogOnceForEveryIndex() {
+
+		List<ProductTextProjection> rows = List.of(row(1L, "Smart TV"));
+		Mockito.when(repository.searchTextFields()).thenReturn(rows);
+
+		loader.rebuild();
+
+		ArgumentCaptor<List<ProductMinDTO>> products = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(searchIndex).rebuild(products.capture());
+		Mockito.verify(priceIndex).rebuild(products.getValue());
+		Mockito.verify(suggestIndex).rebuild(products.getValue());
+		Mockito.verify(fuzzyIndex).rebuild(products.getValue());
+		Mockito.verify(textIndex).rebuild(rows);
+		Mockito.verify(categoryIndex).rebuild();
+		Mockito.verify(repository, Mockito.times(1)).searchTextFields();
+		Mockito.verify(repository, Mockito.never()).findAllMin();
+		Assertions.assertEquals("Smart TV", products.getValue().get(0).getName());
+	}
+
+	@Test
+	public void rebuildShouldStopRecordingChangesWhenTheLoadFails() {
+
+		Mockito.when(repository.searchTextFields()).thenThrow(new IllegalStateException());
+
+		Assertions.assertThrows(IllegalStateException.class, () -> loader.rebuild());
+
+		Mockito.verify(searchIndex).cancelRebuild();
+		Mockito.verify(priceIndex).cancelRebuild();
+		Mockito.verify(suggestIndex).cancelRebuild();
+		Mockito.verify(fuzzyIndex).cancelRebuild();
+		Mockito.verify(textIndex).cancelRebuild();
+	}
+
+	private static ProductTextProjection row(Long id, String name) {
+		return new ProductTextProjection() {
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public String getDescription() {
+				return null;
+			}
+
+			@Override
+			public Double getPrice() {
+				return 100.0;
+			}
+
+			@Override
+			public String getImgUrl() {
+				return null;
+			}
+		};
+	}
+}
@@ -0,0 +1,177 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.tests.ProductFactory;
+
+@ExtendWith(SpringExtension.class)
+public class ProductPriceIndexTests {
+
+	@InjectMocks
+	private ProductPriceIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	private List<ProductMinDTO> products;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		products = new ArrayList<>();
+		products.add(new ProductMinDTO(1L, "The Lord of the Rings", 90.5, null));
+		products.add(new ProductMinDTO(2L, "Smart TV", 2190.0, null));
+		products.add(new ProductMinDTO(3L, "Macbook Pro", 1250.0, null));
+		products.add(new ProductMinDTO(4L, "PC Gamer", 1200.0, null));
+		products.add(new ProductMinDTO(5L, "Rails for Dummies", 100.99, null));
+		products.add(new ProductMinDTO(6L, "PC Gamer Ex", 1200.0, null));
+
+		Mockito.when(repository.findAllMin()).thenReturn(products);
+
+		index.rebuild();
+	}
+
+	@Test
+	public void ascendingIdsShouldOrderByPriceThenId() {
+
+		Assertions.assertArrayEquals(new int[] {1, 5, 4, 6, 3, 2}, index.ascendingIds());
+	}
+
+	@Test
+	public void rangeShouldIncludeBothBounds() {
+
+		ProductFilter filter = index.range(100.99, 1250.0);
+
+		Assertions.assertFalse(filter.test(1));
+		Assertions.assertTrue(filter.test(5));
+		Assertions.assertTrue(filter.test(4));
+		Assertions.assertTrue(filter.test(6));
+		Assertions.assertTrue(filter.test(3));
+		Assertions.assertFalse(filter.test(2));
+	}
+
+	@Test
+	public void rangeShouldAcceptOpenBounds() {
+
+		ProductFilter underHundred = index.range(null, 100.0);
+		ProductFilter overTwoThousand = index.range(2000.0, null);
+
+		Assertions.assertTrue(underHundred.test(1));
+		Assertions.assertFalse(underHundred.test(5));
+		Assertions.assertTrue(overTwoThousand.test(2));
+		Assertions.assertFalse(overTwoThousand.test(3));
+	}
+
+	@Test
+	public void canOrderShouldAcceptOnlyPriceSort() {
+
+		Assertions.assertTrue(index.canOrder(PageRequest.of(0, 12, Sort.by("price").descending())));
+		Assertions.assertFalse(index.canOrder(PageRequest.of(0, 12, Sort.by("price", "name"))));
+		Assertions.assertFalse(index.canOrder(PageRequest.of(0, 12)));
+	}
+
+	@Test
+	public void onProductChangedShouldRepositionUpdatedProduct() {
+
+		Product product = ProductFactory.createProduct("Smart TV");
+		product.setId(2L);
+		product.setPrice(50.0);
+
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+		index.onProductChanged(ProductChangedEvent.deleted(4L));
+
+		Assertions.assertArrayEquals(new int[] {2, 1, 5, 6, 3}, index.ascendingIds());
+		Assertions.assertTrue(index.range(null, 60.0).test(2));
+	}
+
+	@Test
+	public void ascendingIdsShouldPlaceProductsWithoutPriceFirstAndOutsideEveryRange() {
+
+		Product product = ProductFactory.createProduct("Smart TV");
+		product.setId(2L);
+		product.setPrice(null);
+
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+
+		Assertions.assertArrayEquals(new int[] {2, 1, 5, 4, 6, 3}, index.ascendingIds());
+		Assertions.assertFalse(index.range(null, null).test(2));
+		Assertions.assertFalse(index.range(-10.0, -5.0).test(2));
+		Assertions.assertTrue(index.range(null, null).test(1));
+	}
+
+	@Test
+	public void rangeShouldClampBoundsBeyondIndexedPrices() {
+
+		Assertions.assertFalse(index.range(1e20, null).test(3));
+		Assertions.assertTrue(index.range(null, 1e20).test(3));
+		Assertions.assertTrue(index.range(-1e20, null).test(1));
+		Assertions.assertFalse(index.range(null, -1e20).test(1));
+	}
+
+	@Test
+	public void onProductChangedShouldDisableIndexWhilePriceIsOutOfRangeAndRecoverAfterward() {
+
+		Product product = ProductFactory.createProduct("Smart TV");
+		product.setId(2L);
+		product.setPrice(99999999.0);
+
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+
+		Assertions.assertFalse(index.isReady());
+		Assertions.assertFalse(index.canOrder(PageRequest.of(0, 12, Sort.by("price"))));
+
+		product.setPrice(2190.0);
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+
+		Assertions.assertTrue(index.isReady());
+		Assertions.assertArrayEquals(new int[] {1, 5, 4, 6, 3, 2}, index.ascendingIds());
+	}
+
+	@Test
+	public void rebuildShouldKeepChangesAppliedWhileItLoads() {
+
+		Product product = ProductFactory.createProduct("Smart TV");
+		product.setId(2L);
+		product.setPrice(50.0);
+		Mockito.when(repository.findAllMin()).thenAnswer(invocation -> {
+			index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+			index.onProductChanged(ProductChangedEvent.deleted(4L));
+			return products;
+		});
+
+		index.rebuild();
+
+		Assertions.assertArrayEquals(new int[] {2, 1, 5, 6, 3}, index.ascendingIds());
+	}
+
+	@Test
+	public void rebuildShouldDisableIndexWhenProductIdDoesNotFitInAnInt() {
+
+		products.add(new ProductMinDTO(3_000_000_000L, "Gamer Chair", 800.0, null));
+
+		index.rebuild();
+
+		Assertions.assertFalse(index.isReady());
+
+		index.onProductChanged(ProductChangedEvent.deleted(3_000_000_000L));
+
+		Assertions.assertTrue(index.isReady());
+		Assertions.assertArrayEquals(new int[] {1, 5, 4, 6, 3, 2}, index.ascendingIds());
+	}
+}
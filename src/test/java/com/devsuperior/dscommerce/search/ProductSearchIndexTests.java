@@ -0,0 +1,178 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.tests.ProductFactory;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSearchIndexTests {
+
+	@InjectMocks
+	private ProductSearchIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	private List<ProductMinDTO> products;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		products = new ArrayList<>();
+		products.add(new ProductMinDTO(createProduct(1L, "The Lord of the Rings", 90.5)));
+		products.add(new ProductMinDTO(createProduct(2L, "Smart TV", 2190.0)));
+		products.add(new ProductMinDTO(createProduct(3L, "Macbook Pro", 1250.0)));
+		products.add(new ProductMinDTO(createProduct(4L, "PC Gamer", 1200.0)));
+		products.add(new ProductMinDTO(createProduct(5L, "PC Gamer Ex", 1350.0)));
+
+		Mockito.when(repository.findAllMin()).thenReturn(products);
+
+		index.rebuild();
+	}
+
+	@Test
+	public void searchShouldMatchCaseInsensitiveSubstring() {
+
+		Page<ProductMinDTO> result = index.search("gamer", PageRequest.of(0, 10));
+
+		Assertions.assertEquals(2, result.getTotalElements());
+		Assertions.assertEquals(4L, result.getContent().get(0).getId());
+		Assertions.assertEquals(5L, result.getContent().get(1).getId());
+	}
+
+	@Test
+	public void searchShouldMatchQueriesShorterThanATrigram() {
+
+		Page<ProductMinDTO> result = index.search("tv", PageRequest.of(0, 10));
+
+		Assertions.assertEquals(1, result.getTotalElements());
+		Assertions.assertEquals("Smart TV", result.getContent().get(0).getName());
+	}
+
+	@Test
+	public void searchShouldNotReturnProductsThatOnlyShareTrigrams() {
+
+		Page<ProductMinDTO> result = index.search("GAMER PC", PageRequest.of(0, 10));
+
+		Assertions.assertEquals(0, result.getTotalElements());
+	}
+
+	@Test
+	public void searchShouldReturnAllProductsWhenNameIsEmpty() {
+
+		Page<ProductMinDTO> result = index.search("", PageRequest.of(1, 2));
+
+		Assertions.assertEquals(5, result.getTotalElements());
+		Assertions.assertEquals(3, result.getTotalPages());
+		Assertions.assertEquals(3L, result.getContent().get(0).getId());
+		Assertions.assertEquals(4L, result.getContent().get(1).getId());
+	}
+
+	@Test
+	public void searchShouldSortByRequestedProperty() {
+
+		Page<ProductMinDTO> byName = index.search("", PageRequest.of(0, 2, Sort.by("name")));
+		Page<ProductMinDTO> byPriceDesc = index.search("", PageRequest.of(0, 1, Sort.by("price").descending()));
+
+		Assertions.assertEquals("Macbook Pro", byName.getContent().get(0).getName());
+		Assertions.assertEquals("PC Gamer", byName.getContent().get(1).getName());
+		Assertions.assertEquals(2L, byPriceDesc.getContent().get(0).getId());
+	}
+
+	@Test
+	public void canServeShouldReturnFalseWhenSortPropertyIsNotIndexed() {
+
+		Assertions.assertTrue(index.canServe(PageRequest.of(0, 12, Sort.by("name"))));
+		Assertions.assertFalse(index.canServe(PageRequest.of(0, 12, Sort.by("description"))));
+	}
+
+	@Test
+	public void onProductChangedShouldReindexUpdatedProduct() {
+
+		Product updated = createProduct(2L, "Smart TV 4K Gamer", 2500.0);
+
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(updated)));
+
+		Page<ProductMinDTO> result = index.search("gamer", PageRequest.of(0, 10));
+		Assertions.assertEquals(3, result.getTotalElements());
+		Assertions.assertEquals(2L, result.getContent().get(0).getId());
+		Assertions.assertEquals(0, index.count("SMART TV PRO"));
+	}
+
+	@Test
+	public void onProductChangedShouldRemoveDeletedProduct() {
+
+		index.onProductChanged(ProductChangedEvent.deleted(4L));
+
+		Assertions.assertEquals(1, index.count("gamer"));
+		Assertions.assertEquals(4, index.count(""));
+	}
+
+	@Test
+	public void rebuildShouldKeepChangesAppliedWhileItLoads() {
+
+		Mockito.when(repository.findAllMin()).thenAnswer(invocation -> {
+			index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(createProduct(6L, "Gamer Chair", 800.0))));
+			index.onProductChanged(ProductChangedEvent.deleted(4L));
+			return products;
+		});
+
+		index.rebuild();
+
+		Assertions.assertEquals(2, index.count("gamer"));
+		Assertions.assertEquals(5, index.count(""));
+		Assertions.assertEquals(6L, index.search("chair", PageRequest.of(0, 10)).getContent().get(0).getId());
+	}
+
+	@Test
+	public void rebuildShouldDisableIndexWhenProductIdDoesNotFitInAnInt() {
+
+		products.add(new ProductMinDTO(createProduct(3_000_000_000L, "Gamer Chair", 800.0)));
+
+		index.rebuild();
+
+		Assertions.assertFalse(index.isReady());
+		Assertions.assertFalse(index.canServe(PageRequest.of(0, 12)));
+
+		index.onProductChanged(ProductChangedEvent.deleted(3_000_000_000L));
+
+		Assertions.assertTrue(index.isReady());
+		Assertions.assertEquals(2, index.count("gamer"));
+	}
+
+	@Test
+	public void onProductChangedShouldDisableIndexWhileProductIdDoesNotFitInAnInt() {
+
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(createProduct(3_000_000_000L, "Gamer Chair", 800.0))));
+
+		Assertions.assertFalse(index.isReady());
+
+		index.onProductChanged(ProductChangedEvent.deleted(3_000_000_000L));
+
+		Assertions.assertTrue(index.isReady());
+	}
+
+	private static Product createProduct(Long id, String name, Double price) {
+		Product product = ProductFactory.createProduct(name);
+		product.setId(id);
+		product.setPrice(price);
+		return product;
+	}
+}
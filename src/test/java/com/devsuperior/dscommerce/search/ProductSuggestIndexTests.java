@@ -0,0 +1,135 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.ProductSuggestionDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.tests.ProductFactory;
+
+@ExtendWith(SpringExtension.class)
+public class ProductSuggestIndexTests {
+
+	@InjectMocks
+	private ProductSuggestIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	private List<ProductMinDTO> products;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		products = new ArrayList<>();
+		products.add(new ProductMinDTO(1L, "The Lord of the Rings", 90.5, null));
+		products.add(new ProductMinDTO(2L, "Smart TV", 2190.0, null));
+		products.add(new ProductMinDTO(3L, "PC Gamer Turbo", 1280.0, null));
+		products.add(new ProductMinDTO(4L, "PC Gamer", 1200.0, null));
+		products.add(new ProductMinDTO(5L, "Câmera Ação", 800.0, null));
+
+		Mockito.when(repository.findAllMin()).thenReturn(products);
+
+		index.rebuild();
+	}
+
+	@Test
+	public void suggestShouldMatchWordPrefixesShortestNameFirst() {
+
+		List<ProductSuggestionDTO> result = index.suggest("gam", 10);
+
+		Assertions.assertEquals(2, result.size());
+		Assertions.assertEquals("PC Gamer", result.get(0).getName());
+		Assertions.assertEquals("PC Gamer Turbo", result.get(1).getName());
+	}
+
+	@Test
+	public void suggestShouldIgnoreCaseAccentsAndExtraSpaces() {
+
+		Assertions.assertEquals(5L, index.suggest("ACAO", 10).get(0).getId());
+		Assertions.assertEquals(3L, index.suggest("  pc   gamer t", 10).get(0).getId());
+	}
+
+	@Test
+	public void suggestShouldNotMatchInsideWords() {
+
+		Assertions.assertTrue(index.suggest("amer", 10).isEmpty());
+		Assertions.assertTrue(index.suggest("", 10).isEmpty());
+	}
+
+	@Test
+	public void suggestShouldRespectLimit() {
+
+		Assertions.assertEquals(1, index.suggest("pc", 1).size());
+	}
+
+	@Test
+	public void suggestShouldCheckPrefixesLongerThanTrieDepth() {
+
+		Product product = ProductFactory.createProduct("Notebook Ultrafino Profissional Com Tela Grande");
+		product.setId(6L);
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+
+		Assertions.assertEquals(1, index.suggest("notebook ultrafino profissional com tela", 10).size());
+		Assertions.assertTrue(index.suggest("notebook ultrafino profissional com telha", 10).isEmpty());
+	}
+
+	@Test
+	public void onProductChangedShouldReplaceRenamedAndDeletedProducts() {
+
+		Product product = ProductFactory.createProduct("Smart Watch");
+		product.setId(2L);
+
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+		index.onProductChanged(ProductChangedEvent.deleted(4L));
+
+		Assertions.assertEquals("Smart Watch", index.suggest("smart", 10).get(0).getName());
+		Assertions.assertTrue(index.suggest("tv", 10).isEmpty());
+		Assertions.assertEquals(1, index.suggest("gamer", 10).size());
+	}
+
+	@Test
+	public void rebuildShouldKeepChangesAppliedWhileItLoads() {
+
+		Product product = ProductFactory.createProduct("Smart Watch");
+		product.setId(2L);
+		Mockito.when(repository.findAllMin()).thenAnswer(invocation -> {
+			index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+			index.onProductChanged(ProductChangedEvent.deleted(4L));
+			return products;
+		});
+
+		index.rebuild();
+
+		Assertions.assertEquals("Smart Watch", index.suggest("smart", 10).get(0).getName());
+		Assertions.assertTrue(index.suggest("tv", 10).isEmpty());
+		Assertions.assertEquals(1, index.suggest("gamer", 10).size());
+	}
+
+	@Test
+	public void rebuildShouldDisableIndexWhenProductIdDoesNotFitInAnInt() {
+
+		products.add(new ProductMinDTO(3_000_000_000L, "Gamer Chair", 800.0, null));
+
+		index.rebuild();
+
+		Assertions.assertFalse(index.isReady());
+
+		index.onProductChanged(ProductChangedEvent.deleted(3_000_000_000L));
+
+		Assertions.assertTrue(index.isReady());
+		Assertions.assertEquals(2, index.suggest("gamer", 10).size());
+	}
+}
@@ -0,0 +1,170 @@
+package com.devsuperior.dscommerce.search;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.dto.ProductDTO;
+import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
+import com.devsuperior.dscommerce.projections.ProductTextProjection;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+@ExtendWith(SpringExtension.class)
+public class ProductTextIndexTests {
+
+	@InjectMocks
+	private ProductTextIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		List<ProductTextProjection> rows = List.of(
+				row(1L, "Smart TV", "Televisão 4K com controle de voz"),
+				row(2L, "Controle Remoto", "Controle universal para TV"),
+				row(3L, "Caixa de Som", "Som potente com bluetooth"),
+				row(4L, "Fone Bluetooth", "Fone sem fio"));
+
+		Mockito.when(repository.searchTextFields()).thenReturn(rows);
+
+		index.rebuild();
+	}
+
+	@Test
+	public void searchShouldRankNameMatchesAboveDescriptionMatches() {
+
+		Page<ProductMinDTO> result = index.search("controle", PageRequest.of(0, 10));
+
+		Assertions.assertEquals(2, result.getTotalElements());
+		Assertions.assertEquals(2L, result.getContent().get(0).getId());
+		Assertions.assertEquals(1L, result.getContent().get(1).getId());
+	}
+
+	@Test
+	public void searchShouldMatchAnyTermIgnoringAccentsAndStopWords() {
+
+		Page<ProductMinDTO> result = index.search("televisao de bluetooth", PageRequest.of(0, 10));
+
+		Assertions.assertEquals(3, result.getTotalElements());
+		Assertions.assertEquals(1L, result.getContent().get(0).getId());
+		Assertions.assertEquals(4L, result.getContent().get(1).getId());
+	}
+
+	@Test
+	public void searchShouldPageResults() {
+
+		Page<ProductMinDTO> result = index.search("tv som", PageRequest.of(1, 2));
+
+		Assertions.assertEquals(3, result.getTotalElements());
+		Assertions.assertEquals(1, result.getContent().size());
+	}
+
+	@Test
+	public void onProductChangedShouldReindexDescription() {
+
+		Product product = new Product(3L, "Caixa de Som", "Som potente", 150.0, null);
+
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+		index.onProductChanged(ProductChangedEvent.deleted(4L));
+
+		Assertions.assertEquals(0, index.search("bluetooth", PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	@Test
+	public void onProductChangedShouldReuseSlotsAndKeepPostingsConsistent() {
+
+		for (int i = 0; i < 50; i++) {
+			Product product = new Product(1L, "Smart TV", "Televisão 4K com controle de voz " + i, 2190.0, null);
+			index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+		}
+		index.onProductChanged(ProductChangedEvent.deleted(2L));
+		Product product = new Product(5L, "Controle Remoto Pro", "Controle universal", 90.0, null);
+		index.onProductChanged(ProductChangedEvent.saved(new ProductDTO(product)));
+
+		Page<ProductMinDTO> controle = index.search("controle", PageRequest.of(0, 10));
+		Page<ProductMinDTO> bluetooth = index.search("bluetooth", PageRequest.of(0, 10));
+
+		Assertions.assertEquals(4, index.slotCount());
+		Assertions.assertEquals(2, controle.getTotalElements());
+		Assertions.assertEquals(5L, controle.getContent().get(0).getId());
+		Assertions.assertEquals(1L, controle.getContent().get(1).getId());
+		Assertions.assertEquals(2, bluetooth.getTotalElements());
+		Assertions.assertEquals(1, index.search("49", PageRequest.of(0, 10)).getTotalElements());
+		Assertions.assertEquals(0, index.search("48", PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	@Test
+	public void rebuildShouldKeepChangesAppliedWhileItLoads() {
+
+		List<ProductTextProjection> rows = List.of(
+				row(1L, "Smart TV", "Televisão 4K com controle de voz"),
+				row(4L, "Fone Bluetooth", "Fone sem fio"));
+		Mockito.when(repository.searchTextFields()).thenAnswer(invocation -> {
+			index.onProductChanged(ProductChangedEvent.saved(
+					new ProductDTO(5L, "Teclado Bluetooth", "Teclado sem fio", 150.0, null)));
+			index.onProductChanged(ProductChangedEvent.deleted(4L));
+			return rows;
+		});
+
+		index.rebuild();
+
+		Page<ProductMinDTO> result = index.search("bluetooth", PageRequest.of(0, 10));
+		Assertions.assertEquals(1, result.getTotalElements());
+		Assertions.assertEquals(5L, result.getContent().get(0).getId());
+	}
+
+	@Test
+	public void indexShouldKeepProductsWhoseIdDoesNotFitInAnInt() {
+
+		index.onProductChanged(ProductChangedEvent.saved(
+				new ProductDTO(3_000_000_000L, "Teclado Bluetooth", "Teclado sem fio", 150.0, null)));
+
+		Assertions.assertEquals(3_000_000_000L, index.search("teclado", PageRequest.of(0, 10)).getContent().get(0).getId());
+
+		index.onProductChanged(ProductChangedEvent.deleted(3_000_000_000L));
+
+		Assertions.assertEquals(0, index.search("teclado", PageRequest.of(0, 10)).getTotalElements());
+	}
+
+	private static ProductTextProjection row(Long id, String name, String description) {
+		return new ProductTextProjection() {
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public String getDescription() {
+				return description;
+			}
+
+			@Override
+			public Double getPrice() {
+				return 100.0;
+			}
+
+			@Override
+			public String getImgUrl() {
+				return null;
+			}
+		};
+	}
+}
@@ -10,12 +10,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.devsuperior.dscommerce.dto.CategoryDTO;
 import com.devsuperior.dscommerce.entities.Category;
+import com.devsuperior.dscommerce.events.CategoryChangedEvent;
 import com.devsuperior.dscommerce.repositories.CategoryRepository;
 import com.devsuperior.dscommerce.tests.CategoryFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @ExtendWith(SpringExtension.class)
 public class CategoryServiceTests {
@@ -26,6 +29,9 @@ public class CategoryServiceTests {
 	@Mock
 	private CategoryRepository repository;
 	
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+	
 	private Category category;
 	private List<Category> list;
 	
@@ -48,5 +54,29 @@ public class CategoryServiceTests {
 		Assertions.assertEquals(result.get(0).getId(), category.getId());
 		Assertions.assertEquals(result.get(0).getName(), category.getName());
 	}
+	
+	@Test
+	public void snapshotShouldHoldEncodedListAndQueryOnlyOnce() {
+		
+		String json = new String(service.snapshot().getJson());
+		service.snapshot();
+		service.findAll();
+		
+		Assertions.assertEquals("[{\"id\":1,\"name\":\"Games\"}]", json);
+		Mockito.verify(repository, Mockito.times(1)).findAll();
+	}
+	
+	@Test
+	public void snapshotShouldBeRebuiltAfterCategoryChanged() {
+		
+		service.snapshot();
+		list.add(CategoryFactory.createCategory(2L, "Livros"));
+		service.onCategoryChanged(new CategoryChangedEvent(2L));
+		
+		List<CategoryDTO> result = service.findAll();
+		
+		Assertions.assertEquals(2, result.size());
+		Mockito.verify(repository, Mockito.times(2)).findAll();
+	}
 
 }
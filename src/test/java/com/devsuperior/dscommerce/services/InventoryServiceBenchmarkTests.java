@@ -0,0 +1,117 @@
+package com.devsuperior.dscommerce.services;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.devsuperior.dscommerce.entities.Inventory;
+import com.devsuperior.dscommerce.repositories.InventoryRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+
+/**
+ * Reserve+release throughput on one hot product. Excluded from the default build;
+ * run with {@code mvn test -Pbenchmark} and read the ops/s lines it prints.
+ */
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+public class InventoryServiceBenchmarkTests {
+
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+	private static final Duration MEASUREMENT = Duration.ofSeconds(5);
+	private static final long STOCK = 1_000_000L;
+
+	private InventoryService service;
+
+	@Mock
+	private InventoryRepository repository;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	private Long hotProductId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		hotProductId = 1L;
+
+		Mockito.when(repository.findAll()).thenReturn(List.of(new Inventory(hotProductId, STOCK)));
+		Mockito.when(productRepository.existsById(any())).thenReturn(true);
+
+		service = new InventoryService(repository, productRepository, jdbcTemplate, Duration.ofHours(1));
+		service.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.stop();
+	}
+
+	@Test
+	public void reserveAndReleaseThroughputOnOneProduct() throws Exception {
+
+		int cpus = Runtime.getRuntime().availableProcessors();
+		for (int threads : IntStream.of(1, cpus, cpus * 4).distinct().toArray()) {
+			run(threads, WARMUP);
+			double opsPerSecond = run(threads, MEASUREMENT) / (MEASUREMENT.toNanos() / 1e9);
+			System.out.printf("inventory reserve+release, %d thread(s) on %d cpu(s): %,.0f ops/s%n",
+					threads, cpus, opsPerSecond);
+			Assertions.assertTrue(opsPerSecond > 0);
+		}
+
+		Assertions.assertEquals(STOCK, service.findByProduct(hotProductId).getAvailable());
+	}
+
+	// returns the number of reserve+release pairs completed by all threads within the duration
+	private long run(int threads, Duration duration) throws InterruptedException {
+		Map<Long, Integer> line = Map.of(hotProductId, 1);
+		LongAdder pairs = new LongAdder();
+		CountDownLatch start = new CountDownLatch(1);
+		long deadline = System.nanoTime() + duration.toNanos();
+		List<Thread> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			Thread worker = new Thread(() -> {
+				try {
+					start.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				long done = 0;
+				while (System.nanoTime() < deadline) {
+					service.reserve(line);
+					service.release(line);
+					done++;
+				}
+				pairs.add(done);
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		return pairs.sum();
+	}
+}
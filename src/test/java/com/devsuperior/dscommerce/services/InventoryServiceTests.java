@@ -0,0 +1,195 @@
+package com.devsuperior.dscommerce.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsuperior.dscommerce.dto.InventoryDTO;
+import com.devsuperior.dscommerce.entities.Inventory;
+import com.devsuperior.dscommerce.repositories.InventoryRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.UnprocessableEntityException;
+
+@ExtendWith(SpringExtension.class)
+public class InventoryServiceTests {
+
+	private InventoryService service;
+
+	@Mock
+	private InventoryRepository repository;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	private Long hotProductId, otherProductId, untrackedProductId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		hotProductId = 1L;
+		otherProductId = 2L;
+		untrackedProductId = 3L;
+
+		Mockito.when(repository.findAll()).thenReturn(List.of(new Inventory(hotProductId, 500L), new Inventory(otherProductId, 1L)));
+		Mockito.when(productRepository.existsById(any())).thenReturn(true);
+
+		service = new InventoryService(repository, productRepository, jdbcTemplate, Duration.ofHours(1));
+		service.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.stop();
+	}
+
+	@Test
+	public void reserveShouldTakeAllLinesOrNone() {
+
+		Assertions.assertThrows(UnprocessableEntityException.class, () -> {
+			service.reserve(Map.of(hotProductId, 10, otherProductId, 2));
+		});
+
+		Assertions.assertEquals(500L, service.findByProduct(hotProductId).getAvailable());
+		Assertions.assertEquals(1L, service.findByProduct(otherProductId).getAvailable());
+	}
+
+	@Test
+	public void reserveShouldRejectNonPositiveQuantitiesWithoutTakingStock() {
+
+		Assertions.assertThrows(UnprocessableEntityException.class, () -> {
+			service.reserve(Map.of(hotProductId, 5, otherProductId, -1000));
+		});
+		Map<Long, Integer> missing = new HashMap<>();
+		missing.put(hotProductId, null);
+		Assertions.assertThrows(UnprocessableEntityException.class, () -> service.reserve(missing));
+		Assertions.assertThrows(UnprocessableEntityException.class, () -> service.reserve(Map.of(hotProductId, 0)));
+
+		Assertions.assertEquals(500L, service.findByProduct(hotProductId).getAvailable());
+		Assertions.assertEquals(1L, service.findByProduct(otherProductId).getAvailable());
+	}
+
+	@Test
+	public void reserveShouldNotLimitProductsWithoutInventory() {
+
+		service.reserve(Map.of(untrackedProductId, 10_000, hotProductId, 5));
+
+		Assertions.assertNull(service.findByProduct(untrackedProductId).getAvailable());
+		Assertions.assertEquals(495L, service.findByProduct(hotProductId).getAvailable());
+	}
+
+	@Test
+	public void reserveShouldGiveStockBackWhenTransactionRollsBack() {
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			service.reserve(Map.of(hotProductId, 5));
+			Assertions.assertEquals(495L, service.findByProduct(hotProductId).getAvailable());
+
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		Assertions.assertEquals(500L, service.findByProduct(hotProductId).getAvailable());
+	}
+
+	@Test
+	public void reserveShouldNeverOversellWhenThousandsOfThreadsBuyTheSameProduct() throws Exception {
+
+		int buyers = 2000;
+		AtomicInteger sold = new AtomicInteger();
+		AtomicInteger refused = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(buyers);
+		for (int i = 0; i < buyers; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					service.reserve(Map.of(hotProductId, 1));
+					sold.incrementAndGet();
+				}
+				catch (UnprocessableEntityException e) {
+					refused.incrementAndGet();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				finally {
+					done.countDown();
+				}
+			});
+			thread.start();
+		}
+		start.countDown();
+
+		Assertions.assertTrue(done.await(30, TimeUnit.SECONDS));
+		Assertions.assertEquals(500, sold.get());
+		Assertions.assertEquals(1500, refused.get());
+		Assertions.assertEquals(0L, service.findByProduct(hotProductId).getAvailable());
+	}
+
+	@Test
+	public void flushShouldWriteBackOnlyChangedCounters() {
+
+		service.reserve(Map.of(hotProductId, 3));
+		service.reserve(Map.of(hotProductId, 4));
+		service.flush();
+		service.flush();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(jdbcTemplate, Mockito.times(1)).batchUpdate(any(String.class), rows.capture());
+		Assertions.assertEquals(1, rows.getValue().size());
+		Assertions.assertArrayEquals(new Object[] {493L, hotProductId}, rows.getValue().get(0));
+	}
+
+	@Test
+	public void updateShouldKeepReservationsMadeWhileItIsApplied() {
+
+		Mockito.when(jdbcTemplate.update(any(String.class), eq(hotProductId), any())).thenAnswer(invocation -> {
+			service.reserve(Map.of(hotProductId, 5));
+			return 1;
+		});
+
+		InventoryDTO result = service.update(hotProductId, new InventoryDTO(null, 100L));
+
+		Assertions.assertEquals(100L, result.getAvailable());
+		Assertions.assertEquals(95L, service.findByProduct(hotProductId).getAvailable());
+	}
+
+	@Test
+	public void updateShouldStartStockControlForProduct() {
+
+		service.update(untrackedProductId, new InventoryDTO(null, 2L));
+
+		Mockito.verify(jdbcTemplate).update(any(String.class), eq(untrackedProductId), eq(2L));
+		Assertions.assertThrows(UnprocessableEntityException.class, () -> {
+			service.reserve(Map.of(untrackedProductId, 3));
+		});
+	}
+}
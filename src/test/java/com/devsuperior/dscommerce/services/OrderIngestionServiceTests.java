@@ -0,0 +1,263 @@
+package com.devsuperior.dscommerce.services;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderTicketDTO;
+import com.devsuperior.dscommerce.entities.Order;
+import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.entities.User;
+import com.devsuperior.dscommerce.repositories.OrderRepository;
+import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.repositories.UserRepository;
+import com.devsuperior.dscommerce.services.exceptions.ServiceUnavailableException;
+import com.devsuperior.dscommerce.tests.OrderFactory;
+import com.devsuperior.dscommerce.tests.ProductFactory;
+import com.devsuperior.dscommerce.tests.UserFactory;
+
+@ExtendWith(SpringExtension.class)
+public class OrderIngestionServiceTests {
+
+	private OrderIngestionService service;
+
+	@Mock
+	private OrderService orderService;
+
+	@Mock
+	private InventoryService inventoryService;
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private AuthService authService;
+
+	@Mock
+	private OrderRepository repository;
+
+	@Mock
+	private ProductRepository productRepository;
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private User client;
+	private Product product;
+	private OrderDTO orderDTO;
+	private AtomicLong nextOrderId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		client = UserFactory.createCustomClientUser(2L, "Bob");
+		product = ProductFactory.createProduct();
+		orderDTO = new OrderDTO(OrderFactory.createOrder(client));
+		nextOrderId = new AtomicLong(1L);
+
+		Map<Long, Integer> quantities = new LinkedHashMap<>();
+		quantities.put(product.getId(), 2);
+		Mockito.when(userService.authenticated()).thenReturn(client);
+		Mockito.when(orderService.mergeLines(any())).thenReturn(quantities);
+		Mockito.when(orderService.loadProducts(any())).thenReturn(Map.of(product.getId(), product));
+		Mockito.when(userRepository.getReferenceById(client.getId())).thenReturn(client);
+		Mockito.when(productRepository.getReferenceById(product.getId())).thenReturn(product);
+		Mockito.when(transactionTemplate.execute(any()))
+				.thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		Mockito.when(repository.saveAll(any())).thenAnswer(invocation -> {
+			List<Order> saved = new ArrayList<>();
+			for (Order order : invocation.<Iterable<Order>>getArgument(0)) {
+				order.setId(nextOrderId.getAndIncrement());
+				saved.add(order);
+			}
+			return saved;
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (service != null && service.isRunning()) {
+			service.stop();
+		}
+	}
+
+	@Test
+	public void submitShouldThrowServiceUnavailableExceptionWhenNotStarted() {
+
+		service = createService(10);
+
+		Assertions.assertThrows(ServiceUnavailableException.class, () -> service.submit(orderDTO));
+	}
+
+	@Test
+	public void submitShouldThrowServiceUnavailableExceptionWhenQueueIsFull() throws Exception {
+
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			writing.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+		}).when(transactionTemplate).execute(any());
+		service = createService(1);
+		service.start();
+
+		service.submit(orderDTO);
+		Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+		service.submit(orderDTO);
+
+		Assertions.assertThrows(ServiceUnavailableException.class, () -> service.submit(orderDTO));
+		release.countDown();
+		Mockito.verify(inventoryService, Mockito.times(3)).reserve(any());
+		Mockito.verify(inventoryService, Mockito.times(1)).release(any());
+	}
+
+	@Test
+	public void stopShouldWriteEveryAcknowledgedOrderBeforeReturning() {
+
+		service = createService(100);
+		service.start();
+
+		List<OrderTicketDTO> tickets = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			tickets.add(service.submit(orderDTO));
+		}
+		service.stop();
+
+		Assertions.assertThrows(ServiceUnavailableException.class, () -> service.submit(orderDTO));
+		for (OrderTicketDTO ticket : tickets) {
+			OrderTicketDTO result = service.findTicket(ticket.getId());
+			Assertions.assertEquals(OrderTicketDTO.Status.COMPLETED, result.getStatus());
+			Assertions.assertNotNull(result.getOrderId());
+		}
+		Assertions.assertEquals(21L, nextOrderId.get());
+	}
+
+	@Test
+	public void writerShouldFailOnlyTheOrderThatCannotBeWritten() {
+
+		Mockito.doThrow(DataIntegrityViolationException.class).when(repository).saveAll(any());
+		Mockito.when(repository.save(any())).thenAnswer(invocation -> {
+			Order order = invocation.getArgument(0);
+			if (nextOrderId.get() == 2L) {
+				nextOrderId.incrementAndGet();
+				throw new IllegalStateException();
+			}
+			order.setId(nextOrderId.getAndIncrement());
+			return order;
+		});
+		service = createService(10);
+		service.start();
+
+		List<OrderTicketDTO> tickets = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			tickets.add(service.submit(orderDTO));
+		}
+		service.stop();
+
+		Assertions.assertEquals(OrderTicketDTO.Status.COMPLETED, service.findTicket(tickets.get(0).getId()).getStatus());
+		Assertions.assertEquals(OrderTicketDTO.Status.FAILED, service.findTicket(tickets.get(1).getId()).getStatus());
+		Assertions.assertEquals(OrderTicketDTO.Status.COMPLETED, service.findTicket(tickets.get(2).getId()).getStatus());
+		Mockito.verify(inventoryService, Mockito.times(1)).release(any());
+	}
+
+	@Test
+	public void writerShouldFailTicketsAndKeepRunningWhenWriteThrowsError() throws Exception {
+
+		Mockito.doThrow(StackOverflowError.class).when(repository).saveAll(any());
+		service = createService(10);
+		service.start();
+
+		OrderTicketDTO first = service.submit(orderDTO);
+		awaitStatus(first, OrderTicketDTO.Status.FAILED);
+		OrderTicketDTO second = service.submit(orderDTO);
+		awaitStatus(second, OrderTicketDTO.Status.FAILED);
+
+		Mockito.verify(inventoryService, Mockito.times(2)).release(any());
+		Mockito.verify(repository, Mockito.never()).save(any());
+	}
+
+	@Test
+	public void writerShouldNotRewriteOrdersWhenCommitOutcomeIsUnknown() throws Exception {
+
+		Mockito.doAnswer(invocation -> {
+			invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+			throw new TransactionSystemException("commit failed");
+		}).when(transactionTemplate).execute(any());
+		service = createService(10);
+		service.start();
+
+		OrderTicketDTO ticket = service.submit(orderDTO);
+		awaitStatus(ticket, OrderTicketDTO.Status.FAILED);
+
+		Mockito.verify(repository, Mockito.never()).save(any());
+		Mockito.verify(inventoryService, Mockito.never()).release(any());
+	}
+
+	@Test
+	public void findTicketShouldKeepPendingTicketsPastTicketTtlAndSize() throws Exception {
+
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			writing.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+		}).when(transactionTemplate).execute(any());
+		service = new OrderIngestionService(orderService, inventoryService, userService, authService, repository, productRepository,
+				userRepository, transactionTemplate, eventPublisher, 10, 50, Duration.ZERO, Duration.ofMillis(1), 1);
+		service.start();
+
+		List<OrderTicketDTO> tickets = new ArrayList<>();
+		tickets.add(service.submit(orderDTO));
+		Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+		tickets.add(service.submit(orderDTO));
+		tickets.add(service.submit(orderDTO));
+		Thread.sleep(20);
+
+		for (OrderTicketDTO ticket : tickets) {
+			Assertions.assertEquals(OrderTicketDTO.Status.PENDING, service.findTicket(ticket.getId()).getStatus());
+		}
+		release.countDown();
+	}
+
+	private void awaitStatus(OrderTicketDTO ticket, OrderTicketDTO.Status status) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (service.findTicket(ticket.getId()).getStatus() != status && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		Assertions.assertEquals(status, service.findTicket(ticket.getId()).getStatus());
+	}
+
+	private OrderIngestionService createService(int queueCapacity) {
+		return new OrderIngestionService(orderService, inventoryService, userService, authService, repository, productRepository,
+				userRepository, transactionTemplate, eventPublisher, queueCapacity, 50, Duration.ZERO, Duration.ofMinutes(1), 1000);
+	}
+}
@@ -3,6 +3,7 @@ package com.devsuperior.dscommerce.services;
 import static org.mockito.ArgumentMatchers.any;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
@@ -12,25 +13,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.devsuperior.dscommerce.dto.OrderDTO;
+import com.devsuperior.dscommerce.dto.OrderItemDTO;
 import com.devsuperior.dscommerce.entities.Order;
 import com.devsuperior.dscommerce.entities.OrderItem;
 import com.devsuperior.dscommerce.entities.Product;
 import com.devsuperior.dscommerce.entities.User;
-import com.devsuperior.dscommerce.repositories.OrderItemRepository;
 import com.devsuperior.dscommerce.repositories.OrderRepository;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.ForbiddenException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscommerce.services.exceptions.UnprocessableEntityException;
 import com.devsuperior.dscommerce.tests.OrderFactory;
 import com.devsuperior.dscommerce.tests.ProductFactory;
 import com.devsuperior.dscommerce.tests.UserFactory;
 
-import jakarta.persistence.EntityNotFoundException;
-
 @ExtendWith(SpringExtension.class)
 public class OrderServiceTests {
 	
@@ -47,10 +49,13 @@ public class OrderServiceTests {
 	private ProductRepository productRepository;
 	
 	@Mock
-	private OrderItemRepository orderItemRepository;
+	private UserService userService;
 	
 	@Mock
-	private UserService userService;
+	private InventoryService inventoryService;
+	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
 	
 	private Long existingOrderId, nonExistingOrderId;
 	private Long existingProductId, nonExistingProductId;
@@ -77,15 +82,20 @@ public class OrderServiceTests {
 		product = ProductFactory.createProduct();
 		product.setId(existingProductId);
 		
-		Mockito.when(repository.findById(existingOrderId)).thenReturn(Optional.of(order));
-		Mockito.when(repository.findById(nonExistingOrderId)).thenReturn(Optional.empty());
-		
-		Mockito.when(productRepository.getReferenceById(existingProductId)).thenReturn(product);
-		Mockito.when(productRepository.getReferenceById(nonExistingProductId)).thenThrow(EntityNotFoundException.class);
+		Mockito.when(repository.searchByIdWithItems(existingOrderId)).thenReturn(Optional.of(order));
+		Mockito.when(repository.searchByIdWithItems(nonExistingOrderId)).thenReturn(Optional.empty());
+		
+		Mockito.when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<Product> found = new ArrayList<>();
+			for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+				if (id.equals(existingProductId)) {
+					found.add(product);
+				}
+			}
+			return found;
+		});
 	
 		Mockito.when(repository.save(any())).thenReturn(order);
-		
-		Mockito.when(orderItemRepository.saveAll(any())).thenReturn(new ArrayList<>(order.getItems()));
 	}
 	
 	@Test
@@ -130,6 +140,13 @@ public class OrderServiceTests {
 		});
 	}
 	
+	@Test
+	public void findMyOrdersShouldThrowBadRequestExceptionWhenSizeIsOutOfRange() {
+		
+		Assertions.assertThrows(BadRequestException.class, () -> service.findMyOrders("", 0));
+		Assertions.assertThrows(BadRequestException.class, () -> service.findMyOrders("", 101));
+	}
+	
 	@Test
 	public void insertShouldReturnOrderDTOWhenAdminLogged() {
 		
@@ -165,20 +182,52 @@ public class OrderServiceTests {
 	}
 	
 	@Test
-	public void insertShouldThrowsEntityNotFoundExceptionWhenOrderProductIdDoesNotExist() {
+	public void insertShouldMergeDuplicateProductLinesAndLoadProductsOnce() {
 		
 		Mockito.when(userService.authenticated()).thenReturn(client);
 		
-		product.setId(nonExistingOrderId);
-		OrderItem orderItem = new OrderItem(order, product, 2, 10.0);
-		order.getItems().add(orderItem);
+		orderDTO.getItems().add(new OrderItemDTO(existingProductId, product.getName(), product.getPrice(), 3, product.getImgUrl()));
+		
+		OrderDTO result = service.insert(orderDTO);
+		
+		Assertions.assertEquals(1, result.getItems().size());
+		Assertions.assertEquals(5, result.getItems().get(0).getQuantity());
+		Assertions.assertEquals(product.getPrice(), result.getItems().get(0).getPrice());
+		Assertions.assertEquals(5 * product.getPrice(), result.getTotal());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> order.getItems().clear());
+		Mockito.verify(productRepository, Mockito.times(1)).findAllById(any());
+	}
+	
+	@Test
+	public void insertShouldThrowsResourceNotFoundExceptionWhenOrderProductIdDoesNotExist() {
+		
+		Mockito.when(userService.authenticated()).thenReturn(client);
+		
+		Product unknown = ProductFactory.createProduct();
+		unknown.setId(nonExistingProductId);
+		OrderItem orderItem = new OrderItem(order, unknown, 2, 10.0);
+		order.addItem(orderItem);
 		
 		orderDTO = new OrderDTO(order);
 		
-		Assertions.assertThrows(EntityNotFoundException.class, () -> {
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			@SuppressWarnings("unused")
+			OrderDTO result = service.insert(orderDTO);
+		});
+		Mockito.verify(repository, Mockito.never()).save(any());
+	}
+	
+	@Test
+	public void insertShouldThrowsUnprocessableEntityExceptionWhenStockIsInsufficient() {
+		
+		Mockito.when(userService.authenticated()).thenReturn(client);
+		Mockito.doThrow(UnprocessableEntityException.class).when(inventoryService).reserve(any());
+		
+		Assertions.assertThrows(UnprocessableEntityException.class, () -> {
 			@SuppressWarnings("unused")
 			OrderDTO result = service.insert(orderDTO);
 		});
+		Mockito.verify(repository, Mockito.never()).save(any());
 	}
 
 }
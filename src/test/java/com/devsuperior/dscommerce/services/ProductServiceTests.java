@@ -1,7 +1,9 @@
 package com.devsuperior.dscommerce.services;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,17 +14,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.devsuperior.dscommerce.cache.ProductCountCache;
+import com.devsuperior.dscommerce.cache.ProductDetailCache;
+import com.devsuperior.dscommerce.dto.CursorPageDTO;
 import com.devsuperior.dscommerce.dto.ProductDTO;
 import com.devsuperior.dscommerce.dto.ProductMinDTO;
+import com.devsuperior.dscommerce.dto.SliceDTO;
 import com.devsuperior.dscommerce.entities.Product;
+import com.devsuperior.dscommerce.events.ProductChangedEvent;
 import com.devsuperior.dscommerce.repositories.ProductRepository;
+import com.devsuperior.dscommerce.search.ProductCategoryIndex;
+import com.devsuperior.dscommerce.search.ProductFuzzyIndex;
+import com.devsuperior.dscommerce.search.ProductPriceIndex;
+import com.devsuperior.dscommerce.search.ProductSearchIndex;
+import com.devsuperior.dscommerce.search.ProductSuggestIndex;
+import com.devsuperior.dscommerce.search.ProductTextIndex;
+import com.devsuperior.dscommerce.services.exceptions.BadRequestException;
 import com.devsuperior.dscommerce.services.exceptions.DatabaseException;
 import com.devsuperior.dscommerce.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscommerce.tests.ProductFactory;
@@ -38,11 +55,41 @@ public class ProductServiceTests {
 	@Mock
 	private ProductRepository repository;
 	
+	@Mock
+	private ProductSearchIndex searchIndex;
+	
+	@Mock
+	private ProductCategoryIndex categoryIndex;
+	
+	@Mock
+	private ProductPriceIndex priceIndex;
+	
+	@Mock
+	private ProductSuggestIndex suggestIndex;
+	
+	@Mock
+	private ProductFuzzyIndex fuzzyIndex;
+	
+	@Mock
+	private ProductTextIndex textIndex;
+	
+	@Mock
+	private CategoryService categoryService;
+	
+	@Spy
+	private ProductCountCache countCache = new ProductCountCache(Duration.ofMinutes(1), 100);
+	
+	@Spy
+	private ProductDetailCache detailCache = new ProductDetailCache(Duration.ofMinutes(1), 100);
+	
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	
 	private long existingProductId, nonExistingProductId, dependentProductId;
 	private String productName;
 	private Product product;
 	private ProductDTO productDTO;
-	private PageImpl<Product> page;
+	private PageImpl<ProductMinDTO> page;
 	
 	@BeforeEach
 	void setUp() throws Exception {
@@ -54,12 +101,12 @@ public class ProductServiceTests {
 		
 		product = ProductFactory.createProduct(productName);
 		productDTO = new ProductDTO(product);
-		page = new PageImpl<>(List.of(product));
+		page = new PageImpl<>(List.of(new ProductMinDTO(product)));
 		
-		Mockito.when(repository.findById(existingProductId)).thenReturn(Optional.of(product));
-		Mockito.when(repository.findById(nonExistingProductId)).thenReturn(Optional.empty());
+		Mockito.when(repository.searchByIdWithCategories(existingProductId)).thenReturn(Optional.of(product));
+		Mockito.when(repository.searchByIdWithCategories(nonExistingProductId)).thenReturn(Optional.empty());
 		
-		Mockito.when(repository.searchByName(any(), (Pageable)any())).thenReturn(page);
+		Mockito.when(repository.searchMinByName(any(), (Pageable)any())).thenReturn(page);
 		
 		Mockito.when(repository.save(any())).thenReturn(product);
 		
@@ -92,6 +139,91 @@ public class ProductServiceTests {
 		});
 	}
 	
+	@Test
+	public void findAllShouldRequireEveryCategoryWhenMatchIsAll() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(repository.searchMinByNameAndCategories(any(), any(), Mockito.anyLong(), any(), any(), any()))
+				.thenReturn(page);
+		
+		Page<ProductMinDTO> result = service.findAll(productName, List.of(1L, 3L, 1L), "all", null, null, pageable);
+		
+		Assertions.assertEquals(1, result.getTotalElements());
+		Mockito.verify(repository).searchMinByNameAndCategories(productName, List.of(1L, 3L), 2L, null, null, pageable);
+	}
+	
+	@Test
+	public void findAllShouldFilterByPriceRangeThroughRepositoryWhenIndexIsNotReady() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(repository.searchMinByNameAndPrice(any(), any(), any(), any())).thenReturn(page);
+		
+		Page<ProductMinDTO> result = service.findAll(productName, List.of(), "any", null, 100.0, pageable);
+		
+		Assertions.assertEquals(1, result.getTotalElements());
+		Mockito.verify(repository).searchMinByNameAndPrice(productName, null, 100.0, pageable);
+	}
+	
+	@Test
+	public void findAllShouldThrowBadRequestExceptionWhenMatchIsInvalid() {
+		
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.findAll(productName, List.of(1L), "some", null, null, PageRequest.of(0, 12));
+		});
+	}
+	
+	@Test
+	public void findAllFuzzyShouldFallBackToSubstringSearchWhenIndexIsNotReady() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		
+		Page<ProductMinDTO> result = service.findAllFuzzy(productName, pageable);
+		
+		Assertions.assertSame(page, result);
+		Mockito.verify(fuzzyIndex, Mockito.never()).search(any(), any());
+	}
+	
+	@Test
+	public void searchShouldUseTextIndexWhenReady() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(textIndex.isReady()).thenReturn(true);
+		Mockito.when(textIndex.search("playstation", pageable)).thenReturn(page);
+		
+		Page<ProductMinDTO> result = service.search("playstation", pageable);
+		
+		Assertions.assertSame(page, result);
+		Mockito.verify(repository, Mockito.never()).searchMinByName(any(), any());
+	}
+	
+	@Test
+	public void suggestShouldThrowBadRequestExceptionWhenLimitIsOutOfRange() {
+		
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.suggest("pc", ProductSuggestIndex.TOP_K + 1);
+		});
+	}
+	
+	@Test
+	public void findByIdShouldServeRepeatedReadsFromCache() {
+		
+		service.findById(existingProductId);
+		service.findById(existingProductId);
+		
+		Mockito.verify(repository, Mockito.times(1)).searchByIdWithCategories(existingProductId);
+		Assertions.assertEquals(1, service.detailCacheStats().getHitCount());
+	}
+	
+	@Test
+	public void findByIdShouldReloadProductAfterChangeEvent() {
+		
+		service.findById(existingProductId);
+		detailCache.onProductChanged(ProductChangedEvent.deleted(existingProductId));
+		service.findById(existingProductId);
+		
+		Mockito.verify(repository, Mockito.times(2)).searchByIdWithCategories(existingProductId);
+	}
+	
 	@Test
 	public void findAllShouldReturnPagedProductMinDTO() {
 		
@@ -104,6 +236,84 @@ public class ProductServiceTests {
 		Assertions.assertEquals(result.iterator().next().getName(), productName);
 	}
 	
+	@Test
+	public void findAllShouldUseSearchIndexWhenIndexCanServe() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Page<ProductMinDTO> indexed = new PageImpl<>(List.of(new ProductMinDTO(product)));
+		Mockito.when(searchIndex.canServe(pageable)).thenReturn(true);
+		Mockito.when(searchIndex.search(productName, null, pageable, null)).thenReturn(indexed);
+		
+		Page<ProductMinDTO> result = service.findAll(productName, pageable);
+		
+		Assertions.assertSame(result, indexed);
+		Mockito.verify(repository, Mockito.never()).searchMinByName(any(), any());
+	}
+	
+	@Test
+	public void findAllSliceShouldNotCountWhenApproximateTotalIsNotRequested() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(repository.searchSliceByName(any(), any())).thenReturn(new SliceImpl<>(List.of(new ProductMinDTO(product)), pageable, false));
+		
+		SliceDTO<ProductMinDTO> result = service.findAllSlice(productName, pageable, false);
+		
+		Assertions.assertEquals(result.getContent().size(), 1);
+		Assertions.assertFalse(result.isHasNext());
+		Assertions.assertNull(result.getApproximateTotal());
+		Mockito.verify(repository, Mockito.never()).countByName(any());
+	}
+	
+	@Test
+	public void findAllSliceShouldNotCountFilteredSliceWhenIndexesCannotServeIt() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(repository.searchSliceByNameAndCategories(any(), any(), anyLong(), any(), any(), any()))
+				.thenReturn(new SliceImpl<>(List.of(new ProductMinDTO(product)), pageable, true));
+		
+		SliceDTO<ProductMinDTO> result = service.findAllSlice(productName, List.of(1L), "any", null, 100.0, pageable, false);
+		
+		Assertions.assertEquals(result.getContent().size(), 1);
+		Assertions.assertTrue(result.isHasNext());
+		Assertions.assertNull(result.getApproximateTotal());
+		Mockito.verify(repository, Mockito.never()).searchMinByNameAndCategories(any(), any(), anyLong(), any(), any(), any());
+	}
+	
+	@Test
+	public void findAllSliceShouldCacheApproximateTotalPerSearchTerm() {
+		
+		Pageable pageable = PageRequest.of(0, 12);
+		Mockito.when(repository.searchSliceByName(any(), any())).thenReturn(new SliceImpl<>(List.of(new ProductMinDTO(product)), pageable, true));
+		Mockito.when(repository.countByName(productName)).thenReturn(42L);
+		
+		service.findAllSlice(productName, pageable, true);
+		SliceDTO<ProductMinDTO> result = service.findAllSlice(productName.toLowerCase(), pageable, true);
+		
+		Assertions.assertEquals(result.getApproximateTotal(), 42L);
+		Mockito.verify(repository, Mockito.times(1)).countByName(any());
+	}
+	
+	@Test
+	public void findAllAfterShouldReturnNextCursorWhenMoreRowsExist() {
+		
+		ProductMinDTO next = new ProductMinDTO(2L, "Xbox Series X", 4999.0, null);
+		Mockito.when(repository.searchByNameAfterId(any(), any(), any())).thenReturn(List.of(new ProductMinDTO(product), next));
+		
+		CursorPageDTO<ProductMinDTO> result = service.findAllAfter("", "", "id", 1);
+		
+		Assertions.assertEquals(result.getContent().size(), 1);
+		Assertions.assertTrue(result.isHasNext());
+		Assertions.assertNotNull(result.getNextCursor());
+	}
+	
+	@Test
+	public void findAllAfterShouldThrowBadRequestExceptionWhenCursorIsInvalid() {
+		
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.findAllAfter("", "not-a-cursor", "id", 10);
+		});
+	}
+	
 	@Test
 	public void insertShouldReturnProductDTO() {
 		
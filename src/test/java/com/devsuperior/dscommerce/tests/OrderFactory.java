@@ -17,7 +17,7 @@ public class OrderFactory {
 		
 		Product product = ProductFactory.createProduct();
 		OrderItem orderItem = new OrderItem(order, product, 2, 10.0);
-		order.getItems().add(orderItem);
+		order.addItem(orderItem);
 		
 		return order;
 	}